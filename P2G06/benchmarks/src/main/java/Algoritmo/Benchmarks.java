@@ -0,0 +1,40 @@
+package Algoritmo;
+
+import java.io.IOException;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Lanzador de los benchmarks. Acepta las mismas opciones que el main de JMH (filtro por
+ * nombre, -p param=valores, -f, -wi, -i, -rf json -rff fichero...) y añade siempre el
+ * perfilador gc, que informa de los bytes asignados por operación (gc.alloc.rate.norm).
+ *
+ * Ejemplo: java -jar target/benchmarks.jar Cruce -p n=20,100 -rf json -rff antes.json
+ */
+public class Benchmarks {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions opciones = new CommandLineOptions(args);
+        if (opciones.shouldHelp()) {
+            opciones.showHelp();
+            return;
+        }
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(opciones);
+        boolean conGc = opciones.getProfilers().stream()
+                .anyMatch(p -> p.getKlass().equals("gc") || p.getKlass().equals(GCProfiler.class.getName()));
+        if (!conGc) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        Runner runner = new Runner(builder.build());
+        if (opciones.shouldList()) {
+            runner.list();
+        } else {
+            runner.run();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package Algoritmo;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * OperadoresGeneticos.crossover para cada método y varias longitudes de ruta.
+ * Los padres se toman en orden de un conjunto fijo de parejas aleatorias.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CruceBenchmark {
+    private static final int PADRES = 512; // Potencia de 2
+
+    @Param({"20", "100", "1000"})
+    public int n;
+
+    // 0 PMX, 1 OX, 2 CX, 3 Custom, 4 CO, 5 ERX (6 es el mismo Custom que 3)
+    @Param({"0", "1", "2", "3", "4", "5"})
+    public int cruce;
+
+    private IndividuoRuta[] padres;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        padres = Mapas.rutas(PADRES, n);
+    }
+
+    @Benchmark
+    public IndividuoRuta[] cruzar() {
+        int i = siguiente;
+        siguiente = (i + 2) & (PADRES - 1);
+        return OperadoresGeneticos.crossover(padres[i], padres[i + 1], cruce);
+    }
+}
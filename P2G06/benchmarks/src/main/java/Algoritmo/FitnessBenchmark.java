@@ -0,0 +1,55 @@
+package Algoritmo;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import Model.CasaMap;
+
+/**
+ * IndividuoRuta.calcularFitness con los dos tipos de fitness (1 distancia, 2 distancia
+ * + suavidad). Con 20 habitaciones se usa la casa; con más, un edificio generado.
+ * La matriz de distancias y la tabla de suavidad se construyen antes de medir.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FitnessBenchmark {
+    private static final int RUTAS = 512; // Potencia de 2
+
+    @Param({"20", "100"})
+    public int n;
+
+    @Param({"1", "2"})
+    public int fitnessType;
+
+    private CasaMap map;
+    private IndividuoRuta[] rutas;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        map = Mapas.conHabitaciones(n);
+        rutas = Mapas.rutas(RUTAS, n);
+        rutas[0].calcularFitness(map, fitnessType);
+    }
+
+    @Benchmark
+    public double calcularFitness() {
+        IndividuoRuta individuo = rutas[siguiente];
+        siguiente = (siguiente + 1) & (RUTAS - 1);
+        individuo.calcularFitness(map, fitnessType);
+        return individuo.getFitness();
+    }
+}
@@ -0,0 +1,71 @@
+package Algoritmo;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import Model.CasaMap;
+
+/**
+ * Una generación completa de AlgorimoGeneticoRuta (la misma que ejecuta evolucionar en
+ * cada vuelta): selección, cruce, mutación, evaluación y reemplazo. La población se crea
+ * de nuevo en cada iteración de medida, no en cada llamada, así que cada iteración encadena
+ * muchas generaciones sobre una población que va convergiendo: con fitness 2 las últimas
+ * aciertan más en la caché de fitness. Los tiempos son de una ejecución normal, no de la
+ * primera generación sobre una población aleatoria.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GeneracionBenchmark {
+
+    @Param({"100", "1000"})
+    public int poblacion;
+
+    @Param({"1", "2"})
+    public int fitnessType;
+
+    @Param({"1"})
+    public int seleccion;
+
+    @Param({"0"})
+    public int cruce;
+
+    @Param({"1"})
+    public int mutacion;
+
+    private CasaMap map;
+    private AlgorimoGeneticoRuta ag;
+
+    @Setup(Level.Trial)
+    public void prepararMapa() {
+        map = Mapas.casa(ModoBusqueda.ASTAR);
+    }
+
+    @Setup(Level.Iteration)
+    public void prepararPoblacion() {
+        ag = new AlgorimoGeneticoRuta(poblacion, 1, 0.3, 0.8, map, fitnessType, seleccion, cruce, mutacion);
+        ag.setMostrarProgreso(false);
+    }
+
+    @Benchmark
+    public double generacion() {
+        ag.avanzarGeneracion();
+        // El mejor fitness ya lo registra avanzarGeneracion; getMejor recorrería la población
+        List<Double> mejores = ag.getBestFitnessPerGeneration();
+        return mejores.get(mejores.size() - 1);
+    }
+}
@@ -0,0 +1,82 @@
+package Algoritmo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import Model.CasaMap;
+import Model.Room;
+
+/**
+ * Mapas y rutas de entrada de los benchmarks. Todo se genera con semilla fija para que
+ * las mediciones de antes y después de un cambio usen exactamente los mismos datos.
+ */
+final class Mapas {
+    static final long SEMILLA = 42;
+
+    private Mapas() {
+    }
+
+    // La casa de la interfaz (15x15, 20 habitaciones) con el modo de búsqueda indicado
+    static CasaMap casa(ModoBusqueda busqueda) {
+        CasaMap map = new CasaMap();
+        if (map.getModoBusqueda() != busqueda) {
+            map.setModoBusqueda(busqueda);
+        }
+        return map;
+    }
+
+    /**
+     * Edificio de lado x lado celdas dividido en salas de 9x9 separadas por paredes, con una
+     * puerta en el centro de cada tramo de pared, y habitaciones en celdas libres al azar.
+     * La base está en la esquina (0, 0).
+     */
+    static CasaMap edificio(int lado, int habitaciones, ModoBusqueda busqueda) {
+        char[][] grid = new char[lado][lado];
+        for (int r = 0; r < lado; r++) {
+            for (int c = 0; c < lado; c++) {
+                boolean pared = r % 10 == 9 || c % 10 == 9;
+                boolean puerta = (r % 10 == 9 && c % 10 == 4) || (c % 10 == 9 && r % 10 == 4);
+                grid[r][c] = pared && !puerta ? '■' : ' ';
+            }
+        }
+        Random random = new Random(SEMILLA);
+        List<Room> rooms = new ArrayList<>();
+        while (rooms.size() < habitaciones) {
+            int r = random.nextInt(lado);
+            int c = random.nextInt(lado);
+            if (grid[r][c] == ' ' && (r != 0 || c != 0)) {
+                grid[r][c] = 'H'; // Marca temporal para no repetir celda
+                rooms.add(new Room(rooms.size() + 1, "Habitación " + (rooms.size() + 1), r, c));
+            }
+        }
+        for (Room room : rooms) {
+            grid[room.getRow()][room.getCol()] = ' ';
+        }
+        return new CasaMap(grid, rooms, 0, 0, busqueda);
+    }
+
+    // Mapa con n habitaciones: la casa si n = 20 y, si no, un edificio de 100x100
+    static CasaMap conHabitaciones(int n) {
+        return n == 20 ? casa(ModoBusqueda.ASTAR) : edificio(100, n, ModoBusqueda.ASTAR);
+    }
+
+    // Rutas aleatorias de n habitaciones (permutaciones de 1..n)
+    static IndividuoRuta[] rutas(int cantidad, int n) {
+        Random random = new Random(SEMILLA);
+        IndividuoRuta[] rutas = new IndividuoRuta[cantidad];
+        for (int k = 0; k < cantidad; k++) {
+            int[] ruta = new int[n];
+            for (int i = 0; i < n; i++) {
+                ruta[i] = i + 1;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int temp = ruta[i];
+                ruta[i] = ruta[j];
+                ruta[j] = temp;
+            }
+            rutas[k] = new IndividuoRuta(ruta, 0);
+        }
+        return rutas;
+    }
+}
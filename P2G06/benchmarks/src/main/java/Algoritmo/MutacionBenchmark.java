@@ -0,0 +1,51 @@
+package Algoritmo;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * OperadoresGeneticos.mutacion para cada método y varias longitudes de ruta. Las rutas
+ * se mutan en el sitio (siguen siendo permutaciones), recorriendo un conjunto fijo.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MutacionBenchmark {
+    private static final int RUTAS = 512; // Potencia de 2
+
+    @Param({"20", "100", "1000"})
+    public int n;
+
+    // 0 Inserción, 1 Intercambio, 2 Inversión, 3 Heurística, 4 Custom, 5 Scramble
+    @Param({"0", "1", "2", "3", "4", "5"})
+    public int mutacion;
+
+    private IndividuoRuta[] rutas;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        rutas = Mapas.rutas(RUTAS, n);
+    }
+
+    @Benchmark
+    public IndividuoRuta mutar() {
+        IndividuoRuta individuo = rutas[siguiente];
+        siguiente = (siguiente + 1) & (RUTAS - 1);
+        OperadoresGeneticos.mutacion(individuo, mutacion);
+        return individuo;
+    }
+}
@@ -0,0 +1,83 @@
+package Algoritmo;
+
+import java.awt.Point;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import Model.CasaMap;
+import Model.Room;
+
+/**
+ * AStar.calcularRuta entre todas las parejas de puntos (base + habitaciones) del mapa.
+ * Con el caché frío se vacía el caché de rutas antes de cada operación, así que se mide
+ * la búsqueda; con el caché caliente todas las rutas están ya guardadas.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RutasBenchmark {
+
+    // "casa": la de la interfaz; "edificio": 200x200 celdas con 20 habitaciones
+    @Param({"casa", "edificio"})
+    public String mapa;
+
+    @Param({"ASTAR", "JPS", "HPA"})
+    public ModoBusqueda busqueda;
+
+    private CasaMap map;
+    private AStar astar;
+    private int[] filas;
+    private int[] columnas;
+
+    @Setup
+    public void preparar() {
+        map = mapa.equals("casa") ? Mapas.casa(busqueda) : Mapas.edificio(200, 20, busqueda);
+        astar = new AStar(map);
+        List<Room> rooms = map.getRooms();
+        filas = new int[rooms.size() + 1];
+        columnas = new int[rooms.size() + 1];
+        filas[0] = map.getBaseRow();
+        columnas[0] = map.getBaseCol();
+        for (int i = 0; i < rooms.size(); i++) {
+            filas[i + 1] = rooms.get(i).getRow();
+            columnas[i + 1] = rooms.get(i).getCol();
+        }
+        todasLasRutas();
+    }
+
+    @Benchmark
+    public int cacheFrio() {
+        map.getRouteCache().clear();
+        return todasLasRutas();
+    }
+
+    @Benchmark
+    public int cacheCaliente() {
+        return todasLasRutas();
+    }
+
+    // Suma de las longitudes de todas las rutas (para que no se descarte ningún cálculo)
+    private int todasLasRutas() {
+        int total = 0;
+        for (int i = 0; i < filas.length; i++) {
+            for (int j = i + 1; j < filas.length; j++) {
+                List<Point> ruta = astar.calcularRuta(filas[i], columnas[i], filas[j], columnas[j]);
+                total += ruta == null ? 0 : ruta.size();
+            }
+        }
+        return total;
+    }
+}
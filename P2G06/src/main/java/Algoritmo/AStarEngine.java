@@ -0,0 +1,129 @@
+package Algoritmo;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import Model.WalkableBitGrid;
+
+/**
+ * Implementación de A* sin reservas de memoria por consulta.
+ * Cada hilo reutiliza su propio espacio de trabajo: las celdas se indexan como un
+ * int plano (el índice con borde de WalkableBitGrid), las marcas de visitado y coste g se invalidan
+ * incrementando un contador de generación (nunca se limpian los arrays) y la
+ * cola de prioridad es un montículo binario de primitivos.
+ * El montículo reproduce exactamente el orden de java.util.PriorityQueue, por lo
+ * que las rutas obtenidas son idénticas a las de la versión anterior de AStar.
+ */
+public class AStarEngine implements BuscadorRutas {
+    private static final double DIAG_COST = Math.sqrt(2);
+
+    // Desplazamientos en el mismo orden que AStar: primero cardinales, después diagonales
+    private static final int[] DR = { -1, 1, 0, 0, -1, -1, 1, 1 };
+    private static final int[] DC = { 0, 0, -1, 1, -1, 1, -1, 1 };
+
+    private final WalkableBitGrid transitables;
+    private final int[] desplazamiento; // Desplazamiento de índice de cada dirección
+    private final boolean allowDiagonal;
+
+    public AStarEngine(char[][] grid, boolean allowDiagonal) {
+        this(new WalkableBitGrid(grid), allowDiagonal);
+    }
+
+    public AStarEngine(WalkableBitGrid transitables, boolean allowDiagonal) {
+        this.transitables = transitables;
+        this.allowDiagonal = allowDiagonal;
+        int ancho = transitables.getAncho();
+        desplazamiento = new int[DR.length];
+        for (int d = 0; d < DR.length; d++) {
+            desplazamiento[d] = DR[d] * ancho + DC[d];
+        }
+    }
+
+    // Misma heurística que AStar (Manhattan o combinada si se permiten diagonales)
+    private double heuristic(int r, int c, int goalR, int goalC) {
+        int dr = Math.abs(r - goalR);
+        int dc = Math.abs(c - goalC);
+        if (!allowDiagonal) {
+            return dr + dc;
+        } else {
+            double minD = Math.min(dr, dc);
+            double maxD = Math.max(dr, dc);
+            return minD * DIAG_COST + (maxD - minD);
+        }
+    }
+
+    /**
+     * Ejecuta la búsqueda y deja el resultado en el espacio de trabajo del hilo.
+     * Devuelve el coste g de la meta o POSITIVE_INFINITY si no es alcanzable.
+     */
+    private double buscar(SearchWorkspace ws, int startR, int startC, int goalR, int goalC) {
+        ws.prepare(transitables.getNumIndices());
+        int stamp = ws.stamp;
+        int goal = transitables.indice(goalR, goalC);
+        int start = transitables.indice(startR, startC);
+
+        ws.g[start] = 0.0;
+        ws.gStamp[start] = stamp;
+        ws.push(start, heuristic(startR, startC, goalR, goalC), 0.0, -1);
+
+        int numDirs = allowDiagonal ? 8 : 4;
+        while (ws.heapSize > 0) {
+            ws.poll();
+            int current = ws.topCell;
+            if (ws.closedStamp[current] == stamp) {
+                continue;
+            }
+            // Como en AStar, el padre y el coste g son los de la entrada extraída
+            ws.closedStamp[current] = stamp;
+            ws.parent[current] = ws.topParent;
+            double currentG = ws.topG;
+            if (current == goal) {
+                return currentG;
+            }
+
+            int r = transitables.fila(current);
+            int c = transitables.columna(current);
+            for (int d = 0; d < numDirs; d++) {
+                // El borde de la cuadrícula es obstáculo: no hace falta comprobar límites
+                int next = current + desplazamiento[d];
+                if (!transitables.libre(next) || ws.closedStamp[next] == stamp) {
+                    continue;
+                }
+                int nr = r + DR[d];
+                int nc = c + DC[d];
+                double newG = currentG + (d < 4 ? 1.0 : DIAG_COST);
+                if (ws.gStamp[next] != stamp || newG < ws.g[next]) {
+                    ws.g[next] = newG;
+                    ws.gStamp[next] = stamp;
+                    ws.push(next, newG + heuristic(nr, nc, goalR, goalC), newG, current);
+                }
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Calcula la ruta más corta entre (startR, startC) y (goalR, goalC).
+     * Solo se reserva memoria para la lista resultante; devuelve null si no hay camino.
+     */
+    @Override
+    public List<Point> calcularRuta(int startR, int startC, int goalR, int goalC) {
+        SearchWorkspace ws = SearchWorkspace.get();
+        if (buscar(ws, startR, startC, goalR, goalC) == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        List<Point> path = new ArrayList<>();
+        for (int cell = transitables.indice(goalR, goalC); cell != -1; cell = ws.parent[cell]) {
+            path.add(new Point(transitables.fila(cell), transitables.columna(cell)));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    // Calcula el coste del camino sin construir la ruta (número de pasos si no hay diagonales)
+    @Override
+    public double calcularDistancia(int startR, int startC, int goalR, int goalC) {
+        return buscar(SearchWorkspace.get(), startR, startC, goalR, goalC);
+    }
+}
@@ -1,7 +1,14 @@
 package Algoritmo;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.random.RandomGenerator;
+import java.util.SplittableRandom;
 import Model.CasaMap;
 
 public class AlgorimoGeneticoRuta {
@@ -14,17 +21,85 @@ public class AlgorimoGeneticoRuta {
     private int fitnessType; // 1 = Distancia Total, 2 = Distancia + Suavidad
 
     // Nuevos parámetros
-    private int selectionMethod; // 0: Ruleta, 1: Torneo, etc.
+    private int selectionMethod; // 0: Ruleta, 1: Torneo, 2: Estocástico, 3: Restos, 4: Truncamiento, 5: Ranking
     private int crossoverMethod; // 0: PMX, 1: OX, ...
     private int mutationMethod;  // 0: Inserción, 1: Intercambio, ...
 
+    // Evaluación paralela de los hijos de cada generación
+    private ModoEvaluacion modoEvaluacion;
+    private int numHilos;
+    private ExecutorService ejecutor;
+
+    // Caché de fitness por ruta (solo con el fitness de suavidad; null si no se usa)
+    private FitnessCache cacheFitness;
+
     // Atributos para registrar la evolución del fitness
     private List<Double> bestFitnessPerGeneration;
     private List<Double> averageFitnessPerGeneration;
     private List<Double> absoluteBestFitness;
+    private double mejorGlobal = Double.POSITIVE_INFINITY;
+
+    private SeleccionPadres seleccion;
+
+    // Generador de todas las decisiones aleatorias (población inicial, selección, cruce y
+    // mutación). Solo lo usa el hilo que evoluciona: la evaluación en paralelo no sortea nada,
+    // así que con la misma semilla el resultado no depende del número de hilos
+    private final RandomGenerator rng;
+
+    // Búsqueda local opcional sobre los hijos (algoritmo memético); null si no se usa
+    private BusquedaLocal busquedaLocal;
+    private double fraccionBusquedaLocal;
+
+    private boolean mostrarProgreso = true;
+
+    // Progreso por generación para la interfaz y cancelación desde otro hilo
+    private ProgresoListener progresoListener;
+    private volatile boolean cancelado;
+    private IndividuoRuta mejorGeneracion; // Mejor individuo de la población actual (elitismo)
+
+    // Criterios de parada anticipada y motivo de la última parada
+    private final CriteriosParada parada = new CriteriosParada();
+    private MotivoParada motivoParada;
+    private int[] sucesorMejor, predecesorMejor; // Aristas del mejor, para medir la diversidad
+
+    // Métricas por generación; null si no hay listener (entonces no se mide nada)
+    private MetricasListener metricasListener;
+    private final MetricasGeneracion medicion = new MetricasGeneracion();
+    private long evaluacionesSolicitadas; // Individuos pasados a evaluarLote (incluye aciertos de caché)
+    private long actualizacionesDelta;
+    // Contadores al empezar la generación medida (se restan al terminar)
+    private long inicioEvaluaciones, inicioDelta, inicioAciertosFitness, inicioBusquedas, inicioAciertosRutas, inicioFallosRutas;
+    private double[] fitnessPoblacion;
+
+    // Arrays de trabajo del reemplazo (μ + λ), reutilizados entre generaciones
+    private int[] indices;
+    private double[] claves;
+    private long[] tablaHash;  // Tabla hash de rutas con direccionamiento abierto
+    private int[] tablaFila;
+    private int[] tablaSello;  // Sello de la generación que ocupó cada casilla
+    private int sello;
 
     public AlgorimoGeneticoRuta(int tamPoblacion, int generaciones, double probMutacion, double probCruce, 
             CasaMap map, int fitnessType, int selectionMethod, int crossoverMethod, int mutationMethod) {
+        this(tamPoblacion, generaciones, probMutacion, probCruce, map, fitnessType,
+                selectionMethod, crossoverMethod, mutationMethod, ModoEvaluacion.SECUENCIAL, 1);
+    }
+
+    // Igual que el anterior, pero evaluando los hijos en paralelo con numHilos hilos
+    public AlgorimoGeneticoRuta(int tamPoblacion, int generaciones, double probMutacion, double probCruce, 
+            CasaMap map, int fitnessType, int selectionMethod, int crossoverMethod, int mutationMethod,
+            ModoEvaluacion modoEvaluacion, int numHilos) {
+        this(tamPoblacion, generaciones, probMutacion, probCruce, map, fitnessType,
+                selectionMethod, crossoverMethod, mutationMethod, modoEvaluacion, numHilos, new SplittableRandom());
+    }
+
+    // Igual que el anterior, con los números aleatorios de rng (p. ej. new SplittableRandom(semilla))
+    public AlgorimoGeneticoRuta(int tamPoblacion, int generaciones, double probMutacion, double probCruce, 
+            CasaMap map, int fitnessType, int selectionMethod, int crossoverMethod, int mutationMethod,
+            ModoEvaluacion modoEvaluacion, int numHilos, RandomGenerator rng) {
+        this.rng = rng;
+        this.modoEvaluacion = numHilos > 1 ? modoEvaluacion : ModoEvaluacion.SECUENCIAL;
+        this.numHilos = Math.max(1, numHilos);
         this.tamPoblacion = tamPoblacion;
         this.generaciones = generaciones;
         this.probMutacion = probMutacion;
@@ -32,59 +107,107 @@ public class AlgorimoGeneticoRuta {
         this.map = map;
         this.fitnessType = fitnessType;
         this.selectionMethod = selectionMethod;
+        this.seleccion = new SeleccionPadres(selectionMethod, rng);
         this.crossoverMethod = crossoverMethod;
         this.mutationMethod = mutationMethod;
         bestFitnessPerGeneration = new ArrayList<>();
         averageFitnessPerGeneration = new ArrayList<>();
         absoluteBestFitness = new ArrayList<>();
+        // Con el fitness de distancia una consulta cuesta lo mismo que recalcularlo
+        cacheFitness = fitnessType == 2 ? new FitnessCache() : null;
         inicializarPoblacion();
     }
 
     private void inicializarPoblacion() {
         poblacion = new ArrayList<>();
         for (int i = 0; i < tamPoblacion; i++) {
-            IndividuoRuta ind = new IndividuoRuta();
-            ind.calcularFitness(map, fitnessType);
-            poblacion.add(ind);
+            poblacion.add(new IndividuoRuta(rng));
+        }
+        evaluarLote(poblacion);
+        // Después lo mantienen reemplazar y recibirInmigrantes
+        mejorGeneracion = poblacion.get(0);
+        for (IndividuoRuta ind : poblacion) {
+            if (ind.getFitness() < mejorGeneracion.getFitness()) {
+                mejorGeneracion = ind;
+            }
         }
     }
 
-    // Selección según el método: implementamos Ruleta (0) y Torneo (1); otros usan torneo
-    private IndividuoRuta seleccionarPadre() {
-        switch(selectionMethod) {
-            case 0:
-                return seleccionRuleta();
-            case 1:
-                return seleccionTorneo(3);
-            default:
-                return seleccionTorneo(3);
+    /**
+     * Calcula el fitness de todos los individuos del lote. En modo paralelo el lote se
+     * reparte en numHilos bloques contiguos; el fitness de cada individuo solo depende de
+     * su ruta, así que el resultado no depende del orden en que terminen los hilos.
+     */
+    private void evaluarLote(List<IndividuoRuta> lote) {
+        evaluacionesSolicitadas += lote.size();
+        if (modoEvaluacion == ModoEvaluacion.SECUENCIAL || lote.size() < 2) {
+            for (IndividuoRuta ind : lote) {
+                evaluar(ind);
+            }
+            return;
+        }
+        if (ejecutor == null) {
+            ejecutor = modoEvaluacion.crearEjecutor(numHilos);
+        }
+        int bloques = Math.min(numHilos, lote.size());
+        List<Callable<Void>> tareas = new ArrayList<>(bloques);
+        for (int b = 0; b < bloques; b++) {
+            int desde = b * lote.size() / bloques;
+            int hasta = (b + 1) * lote.size() / bloques;
+            tareas.add(() -> {
+                for (int i = desde; i < hasta; i++) {
+                    evaluar(lote.get(i));
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> f : ejecutor.invokeAll(tareas)) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Evaluación del fitness interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al evaluar el fitness", e.getCause());
         }
     }
 
-    private IndividuoRuta seleccionRuleta() {
-        double total = 0;
-        for (IndividuoRuta ind : poblacion) {
-            total += 1.0 / ind.getFitness(); // para minimizar
+    // Fitness de un individuo: de la caché si la ruta ya se evaluó, si no se calcula y se guarda
+    private void evaluar(IndividuoRuta ind) {
+        if (cacheFitness != null && cacheFitness.buscar(ind)) {
+            return;
         }
-        double randVal = Math.random() * total;
-        double acum = 0;
-        for (IndividuoRuta ind : poblacion) {
-            acum += 1.0 / ind.getFitness();
-            if (acum >= randVal) return ind;
+        ind.calcularFitness(map, fitnessType);
+        if (cacheFitness != null) {
+            cacheFitness.guardar(ind);
+        }
+    }
+
+    // Libera los hilos del ejecutor (se llama al terminar evolucionar)
+    private void cerrarEjecutor() {
+        if (ejecutor != null) {
+            ejecutor.shutdown();
+            ejecutor = null;
         }
-        return poblacion.get(poblacion.size()-1);
     }
 
-    private IndividuoRuta seleccionTorneo(int tamTorneo) {
-        IndividuoRuta best = null;
-        for (int i = 0; i < tamTorneo; i++) {
-            IndividuoRuta candidate = poblacion.get((int)(Math.random() * tamPoblacion));
-            if (best == null || candidate.getFitness() < best.getFitness())
-                best = candidate;
+    // Prepara la selección de los padres de la generación (numPadres en total)
+    private void prepararSeleccion(int numPadres) {
+        if (fitnessPoblacion == null || fitnessPoblacion.length < poblacion.size()) {
+            fitnessPoblacion = new double[poblacion.size()];
         }
-        return best;
+        for (int i = 0; i < poblacion.size(); i++) {
+            fitnessPoblacion[i] = poblacion.get(i).getFitness();
+        }
+        seleccion.preparar(fitnessPoblacion, poblacion.size(), numPadres);
+    }
+
+    private IndividuoRuta seleccionarPadre() {
+        return poblacion.get(seleccion.siguiente());
     }
 
+    // Recorre toda la población: solo para consultas externas (la evolución usa mejorGeneracion)
     public IndividuoRuta getMejor() {
         return poblacion.stream().min((a, b) -> Double.compare(a.getFitness(), b.getFitness())).orElse(null);
     }
@@ -102,61 +225,405 @@ public class AlgorimoGeneticoRuta {
         return absoluteBestFitness;
     }
 
+    // Caché de fitness de la ejecución (para consultar la tasa de aciertos); null si no se usa
+    public FitnessCache getCacheFitness() {
+        return cacheFitness;
+    }
+
     public void evolucionar() {
-    double globalBest = Double.POSITIVE_INFINITY;
+    try {
+        evolucionarGeneraciones();
+        if (mostrarProgreso) {
+            System.out.println("Parada: " + motivoParada + " tras " + bestFitnessPerGeneration.size() + " generaciones");
+        }
+        if (cacheFitness != null && mostrarProgreso) {
+            System.out.printf("Caché de fitness: %d aciertos, %d fallos (%.1f%%)%n",
+                    cacheFitness.getHits(), cacheFitness.getMisses(), 100 * cacheFitness.getTasaAciertos());
+        }
+    } finally {
+        cerrarEjecutor();
+    }
+    }
+
+    private void evolucionarGeneraciones() {
+    long inicio = System.nanoTime();
+    int sinMejora = 0;
+    motivoParada = MotivoParada.GENERACIONES;
     for (int gen = 0; gen < generaciones; gen++) {
+        if (cancelado) {
+            motivoParada = MotivoParada.CANCELADO;
+            break;
+        }
+        double mejorAnterior = mejorGlobal;
+        avanzarGeneracion();
+        sinMejora = mejorGlobal < mejorAnterior ? 0 : sinMejora + 1;
+        // Las listas siguen creciendo si se vuelve a llamar a evolucionar: la última entrada es la de esta generación
+        int ultima = bestFitnessPerGeneration.size() - 1;
+        if (mostrarProgreso) {
+            System.out.println("Generación " + gen + " Mejor Fitness: " + bestFitnessPerGeneration.get(ultima));
+        }
+        if (progresoListener != null) {
+            progresoListener.generacionTerminada(new ProgresoGeneracion(gen, generaciones,
+                    bestFitnessPerGeneration.get(ultima), averageFitnessPerGeneration.get(ultima),
+                    absoluteBestFitness.get(ultima), mejorGeneracion.getRuta().clone()));
+        }
+        MotivoParada motivo = parada.comprobar(inicio, getEvaluaciones(), sinMejora, this::getDiversidad);
+        if (motivo != null) {
+            motivoParada = motivo;
+            break;
+        }
+        }
+    }
+
+    // Para si el mejor global no mejora en k generaciones seguidas (0 = desactivado)
+    public void setParadaPorEstancamiento(int k) {
+        parada.setParadaPorEstancamiento(k);
+    }
+
+    // Para si la diversidad de la población (ver getDiversidad) baja de umbral (0 = desactivado)
+    public void setDiversidadMinima(double umbral) {
+        parada.setDiversidadMinima(umbral);
+    }
+
+    // Para al alcanzar maxEvaluaciones evaluaciones (ver getEvaluaciones; 0 = desactivado)
+    public void setMaxEvaluaciones(long maxEvaluaciones) {
+        parada.setMaxEvaluaciones(maxEvaluaciones);
+    }
+
+    /**
+     * Presupuesto de tiempo de evolucionar (0 = sin límite). Al agotarse se termina la
+     * generación en curso y getMejor devuelve el mejor encontrado hasta entonces.
+     */
+    public void setPresupuestoTiempo(long milisegundos) {
+        parada.setPresupuestoTiempo(milisegundos);
+    }
+
+    // Motivo por el que terminó la última llamada a evolucionar (null si no se ha llamado)
+    public MotivoParada getMotivoParada() {
+        return motivoParada;
+    }
+
+    public int getGeneracionesEjecutadas() {
+        return bestFitnessPerGeneration.size();
+    }
+
+    /**
+     * Evaluaciones hechas desde la creación del algoritmo, incluida la población inicial:
+     * fitness calculados desde cero más los actualizados en O(1) con un delta. Las rutas
+     * servidas por la caché de fitness no cuentan.
+     */
+    public long getEvaluaciones() {
+        long aciertos = cacheFitness != null ? cacheFitness.getHits() : 0;
+        return evaluacionesSolicitadas - aciertos + actualizacionesDelta;
+    }
+
+    /**
+     * Diversidad de la población: fracción media de aristas de cada ruta (incluidas las de
+     * la base) que no están en la ruta del mejor individuo. 0 = todos iguales al mejor.
+     * Cuesta O(tamPoblacion * habitaciones).
+     */
+    public double getDiversidad() {
+        IndividuoRuta mejor = mejorGeneracion;
+        int[] rm = mejor.getRuta();
+        int n = rm.length;
+        if (sucesorMejor == null || sucesorMejor.length != n + 1) {
+            sucesorMejor = new int[n + 1];
+            predecesorMejor = new int[n + 1];
+        }
+        int anterior = 0;
+        for (int i = 0; i <= n; i++) {
+            int actual = i < n ? rm[i] : 0;
+            sucesorMejor[anterior] = actual;
+            predecesorMejor[actual] = anterior;
+            anterior = actual;
+        }
+        long distintas = 0;
+        for (IndividuoRuta ind : poblacion) {
+            int[] r = ind.getRuta();
+            anterior = 0;
+            for (int i = 0; i <= n; i++) {
+                int actual = i < n ? r[i] : 0;
+                if (sucesorMejor[anterior] != actual && predecesorMejor[anterior] != actual) {
+                    distintas++;
+                }
+                anterior = actual;
+            }
+        }
+        return (double) distintas / ((long) poblacion.size() * (n + 1));
+    }
+
+    /**
+     * Registra el listener que recibe una instantánea al final de cada generación
+     * (desde el hilo que ejecuta evolucionar); null para quitarlo.
+     */
+    public void setProgresoListener(ProgresoListener progresoListener) {
+        this.progresoListener = progresoListener;
+    }
+
+    /**
+     * Pide que evolucionar termine al acabar la generación en curso. Se puede llamar desde
+     * cualquier hilo; las estadísticas y getMejor reflejan las generaciones completadas.
+     */
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    public boolean isCancelado() {
+        return cancelado;
+    }
+
+    // Una generación completa: cruce, mutación, evaluación, reemplazo y registro de métricas
+    void avanzarGeneracion() {
+        boolean medir = metricasListener != null;
+        long t = medir ? iniciarMedicion() : 0;
         List<IndividuoRuta> nuevaPoblacion = new ArrayList<>();
         // --- Aplicar elitismo: copiar el mejor individuo de la generación actual ---
-        IndividuoRuta elitista = getMejor();
+        IndividuoRuta elitista = mejorGeneracion;
         nuevaPoblacion.add(elitista.copy());
+        List<IndividuoRuta> pendientes = new ArrayList<>();
+        // Cada cruce usa dos padres y da hasta dos hijos
+        prepararSeleccion(2 * (tamPoblacion / 2));
         
         // Generar nuevos individuos
         while (nuevaPoblacion.size() < tamPoblacion) {
             IndividuoRuta padre1 = seleccionarPadre();
             IndividuoRuta padre2 = seleccionarPadre();
+            if (medir) t = medicion.sumar(FaseGeneracion.SELECCION, t);
             IndividuoRuta[] hijos;
-            if (Math.random() < probCruce) {
-                hijos = OperadoresGeneticos.crossover(padre1, padre2, crossoverMethod);
+            boolean copias; // Sin cruce los hijos son copias y conservan el fitness de los padres
+            if (rng.nextDouble() < probCruce) {
+                hijos = OperadoresGeneticos.crossover(padre1, padre2, crossoverMethod, rng);
+                copias = false;
             } else {
-                hijos = new IndividuoRuta[]{ new IndividuoRuta(), new IndividuoRuta() };
-                System.arraycopy(padre1.getRuta(), 0, hijos[0].getRuta(), 0, padre1.getRuta().length);
-                System.arraycopy(padre2.getRuta(), 0, hijos[1].getRuta(), 0, padre2.getRuta().length);
+                hijos = new IndividuoRuta[]{ padre1.copy(), padre2.copy() };
+                copias = true;
             }
+            if (medir) t = medicion.sumar(FaseGeneracion.CRUCE, t);
             for (IndividuoRuta hijo : hijos) {
-                if (Math.random() < probMutacion) {
-                    OperadoresGeneticos.mutacion(hijo, mutationMethod);
+                boolean evaluado = copias;
+                if (rng.nextDouble() < probMutacion) {
+                    if (evaluado && fitnessType == 1) {
+                        // Fitness de distancia: se actualiza en O(1) con el delta de la mutación
+                        double delta = OperadoresGeneticos.mutacionConDelta(hijo, mutationMethod, map.getDistanceMatrix(), rng);
+                        if (Double.isFinite(delta)) {
+                            hijo.ajustarFitness(delta);
+                            actualizacionesDelta++;
+                        } else {
+                            evaluado = false;
+                        }
+                    } else {
+                        OperadoresGeneticos.mutacion(hijo, mutationMethod, rng);
+                        evaluado = false;
+                    }
                 }
-                hijo.calcularFitness(map, fitnessType);
                 nuevaPoblacion.add(hijo);
+                if (!evaluado) {
+                    pendientes.add(hijo);
+                }
                 if (nuevaPoblacion.size() >= tamPoblacion) break;
             }
+            if (medir) t = medicion.sumar(FaseGeneracion.MUTACION, t);
+        }
+        // Evaluación de los hijos cuyo fitness no se conoce todavía
+        evaluarLote(pendientes);
+        if (medir) t = medicion.sumar(FaseGeneracion.EVALUACION, t);
+        if (busquedaLocal != null) {
+            aplicarBusquedaLocal(nuevaPoblacion.subList(1, nuevaPoblacion.size()));
+            if (medir) t = medicion.sumar(FaseGeneracion.BUSQUEDA_LOCAL, t);
+        }
+        reemplazar(nuevaPoblacion);
+        if (medir) {
+            medicion.sumar(FaseGeneracion.REEMPLAZO, t);
+            terminarMedicion();
+        }
+    }
+
+    private long iniciarMedicion() {
+        medicion.reiniciar(bestFitnessPerGeneration.size());
+        RouteCache rutas = map.getRouteCache();
+        inicioEvaluaciones = evaluacionesSolicitadas;
+        inicioDelta = actualizacionesDelta;
+        inicioAciertosFitness = cacheFitness != null ? cacheFitness.getHits() : 0;
+        inicioBusquedas = rutas.getBusquedas();
+        inicioAciertosRutas = rutas.getHits();
+        inicioFallosRutas = rutas.getMisses();
+        return System.nanoTime();
+    }
+
+    private void terminarMedicion() {
+        RouteCache rutas = map.getRouteCache();
+        medicion.aciertosCacheFitness = (cacheFitness != null ? cacheFitness.getHits() : 0) - inicioAciertosFitness;
+        medicion.evaluaciones = evaluacionesSolicitadas - inicioEvaluaciones - medicion.aciertosCacheFitness;
+        medicion.actualizacionesDelta = actualizacionesDelta - inicioDelta;
+        medicion.busquedasRuta = rutas.getBusquedas() - inicioBusquedas;
+        medicion.aciertosCacheRutas = rutas.getHits() - inicioAciertosRutas;
+        medicion.fallosCacheRutas = rutas.getMisses() - inicioFallosRutas;
+        int gen = bestFitnessPerGeneration.size() - 1;
+        medicion.mejor = bestFitnessPerGeneration.get(gen);
+        medicion.media = averageFitnessPerGeneration.get(gen);
+        metricasListener.generacionCompletada(medicion);
+    }
+
+    /**
+     * Registra el listener que recibe los tiempos por fase y los contadores de cada
+     * generación (p. ej. un HistogramaMetricas); null para dejar de medir.
+     */
+    public void setMetricasListener(MetricasListener metricasListener) {
+        this.metricasListener = metricasListener;
+    }
+
+    // Activa o desactiva los mensajes por consola de cada generación (p. ej. en ejecuciones por lotes)
+    public void setMostrarProgreso(boolean mostrarProgreso) {
+        this.mostrarProgreso = mostrarProgreso;
+    }
+
+    /**
+     * Activa la búsqueda local 2-opt / Or-opt tras la mutación sobre la fracción indicada
+     * de los hijos de cada generación (los mejores; 1 = todos). Con fraccion <= 0 se desactiva.
+     */
+    public void setBusquedaLocal(double fraccion) {
+        fraccionBusquedaLocal = Math.min(1, fraccion);
+        busquedaLocal = fraccion > 0 ? new BusquedaLocal(map.getDistanceMatrix()) : null;
+    }
+
+    // Aplica la búsqueda local a los mejores hijos y actualiza su fitness
+    private void aplicarBusquedaLocal(List<IndividuoRuta> hijos) {
+        int total = hijos.size();
+        int k = (int) Math.ceil(fraccionBusquedaLocal * total);
+        prepararReemplazo(total);
+        for (int i = 0; i < total; i++) {
+            indices[i] = i;
+            claves[i] = hijos.get(i).getFitness();
         }
-        // --- Reemplazo (μ + λ): combinamos la población anterior con la nueva ---
-        List<IndividuoRuta> combinada = new ArrayList<>();
+        SeleccionParcial.menores(indices, total, k, claves);
+        List<IndividuoRuta> cambiados = new ArrayList<>();
+        for (int i = 0; i < k; i++) {
+            IndividuoRuta hijo = hijos.get(indices[i]);
+            double delta = busquedaLocal.mejorar(hijo);
+            if (delta == 0) {
+                continue;
+            }
+            // Con el fitness de distancia la mejora es exactamente la variación del fitness
+            if (fitnessType == 1 && Double.isFinite(delta) && Double.isFinite(hijo.getFitness())) {
+                hijo.ajustarFitness(delta);
+                actualizacionesDelta++;
+            } else {
+                cambiados.add(hijo);
+            }
+        }
+        evaluarLote(cambiados);
+    }
+
+    /**
+     * Reemplazo (μ + λ): de la población anterior y la nueva sobreviven los tamPoblacion
+     * mejores, elegidos por selección parcial (quickselect) en lugar de ordenar las 2N.
+     * Los duplicados exactos solo sobreviven si no hay suficientes rutas distintas.
+     * El mejor y la media se registran en la misma pasada que construye la población.
+     */
+    private void reemplazar(List<IndividuoRuta> nuevaPoblacion) {
+        List<IndividuoRuta> combinada = new ArrayList<>(poblacion.size() + nuevaPoblacion.size());
         combinada.addAll(poblacion);
         combinada.addAll(nuevaPoblacion);
-        // Ordenamos la población combinada por fitness (menor es mejor)
-        combinada.sort((a, b) -> Double.compare(a.getFitness(), b.getFitness()));
-        // Seleccionamos los mejores 'tamPoblacion' individuos para la siguiente generación
-        poblacion = combinada.subList(0, tamPoblacion);
-        
-        IndividuoRuta mejor = getMejor();
-        double currentBest = mejor.getFitness();
-        bestFitnessPerGeneration.add(currentBest);
+        int total = combinada.size();
+        prepararReemplazo(total);
 
-        // Calcular el fitness promedio de la generación
+        // Rutas distintas al principio de indices y duplicados al final
+        int unicos = 0, repetidos = total;
+        sello++;
+        for (int i = 0; i < total; i++) {
+            IndividuoRuta ind = combinada.get(i);
+            claves[i] = ind.getFitness();
+            if (registrarRuta(combinada, i)) {
+                indices[unicos++] = i;
+            } else {
+                indices[--repetidos] = i;
+            }
+        }
+        if (unicos >= tamPoblacion) {
+            SeleccionParcial.menores(indices, 0, unicos, tamPoblacion, claves);
+        } else {
+            // Pasan todas las rutas distintas y se completa con los mejores duplicados
+            SeleccionParcial.menores(indices, unicos, total, tamPoblacion - unicos, claves);
+        }
+
+        List<IndividuoRuta> supervivientes = new ArrayList<>(tamPoblacion);
+        double currentBest = Double.POSITIVE_INFINITY;
         double sumFitness = 0;
-        for (IndividuoRuta ind : poblacion) {
+        mejorGeneracion = combinada.get(indices[0]);
+        for (int i = 0; i < tamPoblacion; i++) {
+            IndividuoRuta ind = combinada.get(indices[i]);
+            supervivientes.add(ind);
+            if (ind.getFitness() < currentBest) {
+                currentBest = ind.getFitness();
+                mejorGeneracion = ind;
+            }
             sumFitness += ind.getFitness();
         }
-        double avgFitness = sumFitness / poblacion.size();
-        averageFitnessPerGeneration.add(avgFitness);
+        poblacion = supervivientes;
 
+        bestFitnessPerGeneration.add(currentBest);
+        averageFitnessPerGeneration.add(sumFitness / tamPoblacion);
         // Actualizar el mejor fitness global hasta el momento
-        globalBest = Math.min(globalBest, currentBest);
-        absoluteBestFitness.add(globalBest);
+        mejorGlobal = Math.min(mejorGlobal, currentBest);
+        absoluteBestFitness.add(mejorGlobal);
+    }
+
+    // Reserva (solo la primera vez o si crece el total) los arrays de trabajo del reemplazo
+    private void prepararReemplazo(int total) {
+        if (indices != null && indices.length >= total) {
+            return;
+        }
+        indices = new int[total];
+        claves = new double[total];
+        int capacidad = Integer.highestOneBit(Math.max(total, 1) * 2) << 1;
+        tablaHash = new long[capacidad];
+        tablaFila = new int[capacidad];
+        tablaSello = new int[capacidad];
+        sello = 0;
+    }
 
-        System.out.println("Generación " + gen + " Mejor Fitness: " + currentBest);
+    // Inserta la ruta de combinada[fila] en la tabla hash; false si ya había una ruta igual
+    private boolean registrarRuta(List<IndividuoRuta> combinada, int fila) {
+        IndividuoRuta ind = combinada.get(fila);
+        long h = ind.getHash();
+        int mascara = tablaHash.length - 1;
+        int slot = (int) (h ^ (h >>> 32)) & mascara;
+        while (tablaSello[slot] == sello) {
+            if (tablaHash[slot] == h && Arrays.equals(combinada.get(tablaFila[slot]).getRuta(), ind.getRuta())) {
+                return false;
+            }
+            slot = (slot + 1) & mascara;
+        }
+        tablaSello[slot] = sello;
+        tablaHash[slot] = h;
+        tablaFila[slot] = fila;
+        return true;
+    }
+
+    // --- Migración (modelo de islas) ---
+
+    // Copias de los k mejores individuos de la población
+    List<IndividuoRuta> emigrantes(int k) {
+        List<IndividuoRuta> ordenada = new ArrayList<>(poblacion);
+        ordenada.sort((a, b) -> Double.compare(a.getFitness(), b.getFitness()));
+        List<IndividuoRuta> copias = new ArrayList<>();
+        for (int i = 0; i < Math.min(k, ordenada.size()); i++) {
+            copias.add(ordenada.get(i).copy());
+        }
+        return copias;
+    }
+
+    // Los inmigrantes (ya evaluados) sustituyen a los peores individuos de la población
+    void recibirInmigrantes(List<IndividuoRuta> inmigrantes) {
+        poblacion.sort((a, b) -> Double.compare(a.getFitness(), b.getFitness()));
+        int n = Math.min(inmigrantes.size(), poblacion.size() - 1); // El mejor propio se conserva
+        for (int i = 0; i < n; i++) {
+            IndividuoRuta inmigrante = inmigrantes.get(i);
+            poblacion.set(poblacion.size() - 1 - i, inmigrante);
+            // Un inmigrante puede ser mejor que el mejor propio
+            if (inmigrante.getFitness() < mejorGeneracion.getFitness()) {
+                mejorGeneracion = inmigrante;
+            }
         }
     }
 }
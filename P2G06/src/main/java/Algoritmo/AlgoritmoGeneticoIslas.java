@@ -0,0 +1,304 @@
+package Algoritmo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import Model.CasaMap;
+
+/**
+ * Modelo de islas: varias subpoblaciones de AlgorimoGeneticoRuta evolucionan en paralelo,
+ * cada una en su propio hilo y con su propia configuración de selección, cruce y mutación.
+ * Cada intervaloMigracion generaciones las islas se sincronizan e intercambian sus mejores
+ * individuos según la topología, que sustituyen a los peores de la isla que los recibe.
+ * Las métricas por generación combinan todas las islas (mejor y media global).
+ * Los criterios de parada anticipada son los de AlgorimoGeneticoRuta sobre el conjunto de
+ * las islas: el tiempo se comprueba en cada generación y el resto al final de cada época.
+ */
+public class AlgoritmoGeneticoIslas {
+    private final List<AlgorimoGeneticoRuta> islas;
+    private final int generaciones;
+    private final TopologiaMigracion topologia;
+    private final int intervaloMigracion;
+    private final int numMigrantes;
+    private boolean mostrarProgreso = true;
+    private volatile boolean cancelado;
+    private ProgresoListener progresoListener;
+
+    private final CriteriosParada parada = new CriteriosParada();
+    private MotivoParada motivoParada;
+    private int sinMejora; // Generaciones seguidas sin mejorar el mejor global
+
+    private List<Double> bestFitnessPerGeneration;
+    private List<Double> averageFitnessPerGeneration;
+    private List<Double> absoluteBestFitness;
+
+    /**
+     * Configuración de operadores de una isla (mismos índices que AlgorimoGeneticoRuta).
+     */
+    public static class ConfiguracionIsla {
+        private final int selectionMethod;
+        private final int crossoverMethod;
+        private final int mutationMethod;
+
+        public ConfiguracionIsla(int selectionMethod, int crossoverMethod, int mutationMethod) {
+            this.selectionMethod = selectionMethod;
+            this.crossoverMethod = crossoverMethod;
+            this.mutationMethod = mutationMethod;
+        }
+    }
+
+    /**
+     * Crea una isla por configuración, cada una con tamPoblacion individuos.
+     * Con intervaloMigracion <= 0 o numMigrantes <= 0 las islas evolucionan aisladas.
+     */
+    public AlgoritmoGeneticoIslas(int tamPoblacion, int generaciones, double probMutacion, double probCruce,
+            CasaMap map, int fitnessType, List<ConfiguracionIsla> configuraciones,
+            TopologiaMigracion topologia, int intervaloMigracion, int numMigrantes) {
+        this(tamPoblacion, generaciones, probMutacion, probCruce, map, fitnessType, configuraciones,
+                topologia, intervaloMigracion, numMigrantes, new SplittableRandom());
+    }
+
+    /**
+     * Igual que el anterior, con los números aleatorios de rng. Cada isla recibe su propio
+     * generador, separado de rng con split() en el orden de las configuraciones: las islas
+     * no comparten estado entre hilos y con la misma semilla la evolución es la misma sea
+     * cual sea el orden en que el ejecutor las reparte.
+     */
+    public AlgoritmoGeneticoIslas(int tamPoblacion, int generaciones, double probMutacion, double probCruce,
+            CasaMap map, int fitnessType, List<ConfiguracionIsla> configuraciones,
+            TopologiaMigracion topologia, int intervaloMigracion, int numMigrantes,
+            RandomGenerator.SplittableGenerator rng) {
+        if (configuraciones.isEmpty()) {
+            throw new IllegalArgumentException("Se necesita al menos una isla");
+        }
+        this.generaciones = generaciones;
+        this.topologia = topologia;
+        this.intervaloMigracion = intervaloMigracion > 0 ? intervaloMigracion : generaciones;
+        this.numMigrantes = Math.max(0, numMigrantes);
+        islas = new ArrayList<>();
+        for (ConfiguracionIsla c : configuraciones) {
+            // Cada isla ya ocupa un hilo: su evaluación es secuencial
+            islas.add(new AlgorimoGeneticoRuta(tamPoblacion, generaciones, probMutacion, probCruce, map,
+                    fitnessType, c.selectionMethod, c.crossoverMethod, c.mutationMethod,
+                    ModoEvaluacion.SECUENCIAL, 1, rng.split()));
+        }
+        bestFitnessPerGeneration = new ArrayList<>();
+        averageFitnessPerGeneration = new ArrayList<>();
+        absoluteBestFitness = new ArrayList<>();
+    }
+
+    public void evolucionar() {
+        ExecutorService ejecutor = ModoEvaluacion.FORK_JOIN.crearEjecutor(islas.size());
+        long inicio = System.nanoTime();
+        motivoParada = MotivoParada.GENERACIONES;
+        sinMejora = 0;
+        try {
+            int gen = 0;
+            while (gen < generaciones) {
+                if (cancelado) {
+                    motivoParada = MotivoParada.CANCELADO;
+                    break;
+                }
+                // Época: cada isla avanza hasta la siguiente migración en su propio hilo
+                int epoca = Math.min(intervaloMigracion, generaciones - gen);
+                List<Callable<Integer>> tareas = new ArrayList<>(islas.size());
+                for (AlgorimoGeneticoRuta isla : islas) {
+                    tareas.add(() -> {
+                        // El tiempo se mira al terminar cada generación, como en AlgorimoGeneticoRuta
+                        int hechas = 0;
+                        do {
+                            isla.avanzarGeneracion();
+                            hechas++;
+                        } while (hechas < epoca && !parada.tiempoAgotado(inicio));
+                        return hechas;
+                    });
+                }
+                // Si se agota el tiempo, solo cuentan las generaciones que hicieron todas las islas
+                int hechas = epoca;
+                for (Future<Integer> f : ejecutor.invokeAll(tareas)) {
+                    hechas = Math.min(hechas, f.get());
+                }
+                registrarMetricas(gen, hechas);
+                gen += hechas;
+                MotivoParada motivo = parada.comprobar(inicio, getEvaluaciones(), sinMejora, this::getDiversidad);
+                if (motivo != null) {
+                    motivoParada = motivo;
+                    break;
+                }
+                if (gen < generaciones && numMigrantes > 0) {
+                    migrar();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Evolución de las islas interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error en la evolución de una isla", e.getCause());
+        } finally {
+            ejecutor.shutdown();
+        }
+    }
+
+    /**
+     * Listener que recibe una instantánea por generación con las métricas combinadas;
+     * se llama al final de cada época, desde el hilo que ejecuta evolucionar. null para quitarlo.
+     */
+    public void setProgresoListener(ProgresoListener progresoListener) {
+        this.progresoListener = progresoListener;
+    }
+
+    // Para si el mejor global no mejora en k generaciones seguidas (0 = desactivado)
+    public void setParadaPorEstancamiento(int k) {
+        parada.setParadaPorEstancamiento(k);
+    }
+
+    // Para si la diversidad media de las islas baja de umbral (0 = desactivado)
+    public void setDiversidadMinima(double umbral) {
+        parada.setDiversidadMinima(umbral);
+    }
+
+    // Para al alcanzar maxEvaluaciones evaluaciones entre todas las islas (0 = desactivado)
+    public void setMaxEvaluaciones(long maxEvaluaciones) {
+        parada.setMaxEvaluaciones(maxEvaluaciones);
+    }
+
+    // Presupuesto de tiempo de evolucionar (0 = sin límite); cada isla termina su generación en curso
+    public void setPresupuestoTiempo(long milisegundos) {
+        parada.setPresupuestoTiempo(milisegundos);
+    }
+
+    // Motivo por el que terminó la última llamada a evolucionar (null si no se ha llamado)
+    public MotivoParada getMotivoParada() {
+        return motivoParada;
+    }
+
+    public int getGeneracionesEjecutadas() {
+        return bestFitnessPerGeneration.size();
+    }
+
+    // Suma de las evaluaciones de todas las islas (ver AlgorimoGeneticoRuta.getEvaluaciones)
+    public long getEvaluaciones() {
+        long total = 0;
+        for (AlgorimoGeneticoRuta isla : islas) {
+            total += isla.getEvaluaciones();
+        }
+        return total;
+    }
+
+    // Media de la diversidad de cada isla, medida respecto a su propio mejor individuo
+    public double getDiversidad() {
+        double suma = 0;
+        for (AlgorimoGeneticoRuta isla : islas) {
+            suma += isla.getDiversidad();
+        }
+        return suma / islas.size();
+    }
+
+    // Detiene evolucionar() al terminar la época en curso (se puede llamar desde otro hilo)
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    // Activa o desactiva los mensajes por consola de cada generación (p. ej. en ejecuciones por lotes)
+    public void setMostrarProgreso(boolean mostrarProgreso) {
+        this.mostrarProgreso = mostrarProgreso;
+    }
+
+    // Intercambio síncrono: primero se recogen todos los emigrantes y después se reparten
+    private void migrar() {
+        int n = islas.size();
+        if (n < 2) {
+            return;
+        }
+        List<List<IndividuoRuta>> emigrantes = new ArrayList<>(n);
+        for (AlgorimoGeneticoRuta isla : islas) {
+            emigrantes.add(isla.emigrantes(numMigrantes));
+        }
+        for (int i = 0; i < n; i++) {
+            List<IndividuoRuta> inmigrantes;
+            if (topologia == TopologiaMigracion.ANILLO) {
+                inmigrantes = emigrantes.get((i - 1 + n) % n);
+            } else {
+                // Completa: los mejores numMigrantes de entre los emigrantes de las demás islas
+                inmigrantes = new ArrayList<>();
+                for (int j = 0; j < n; j++) {
+                    if (j != i) {
+                        for (IndividuoRuta ind : emigrantes.get(j)) {
+                            inmigrantes.add(ind.copy());
+                        }
+                    }
+                }
+                inmigrantes.sort((a, b) -> Double.compare(a.getFitness(), b.getFitness()));
+                inmigrantes = inmigrantes.subList(0, Math.min(numMigrantes, inmigrantes.size()));
+            }
+            islas.get(i).recibirInmigrantes(inmigrantes);
+        }
+    }
+
+    // Métricas combinadas de las generaciones [desde, desde + cuantas)
+    private void registrarMetricas(int desde, int cuantas) {
+        // Las rutas solo se conocen al final de la época: las instantáneas llevan la del mejor de entonces
+        int[] rutaMejor = progresoListener != null && cuantas > 0 ? getMejor().getRuta().clone() : null;
+        for (int gen = desde; gen < desde + cuantas; gen++) {
+            double mejor = Double.POSITIVE_INFINITY;
+            double suma = 0;
+            for (AlgorimoGeneticoRuta isla : islas) {
+                mejor = Math.min(mejor, isla.getBestFitnessPerGeneration().get(gen));
+                suma += isla.getAverageFitnessPerGeneration().get(gen);
+            }
+            bestFitnessPerGeneration.add(mejor);
+            // Todas las islas tienen el mismo tamaño: la media global es la media de las medias
+            averageFitnessPerGeneration.add(suma / islas.size());
+            double anterior = absoluteBestFitness.isEmpty() ? Double.POSITIVE_INFINITY
+                    : absoluteBestFitness.get(absoluteBestFitness.size() - 1);
+            sinMejora = mejor < anterior ? 0 : sinMejora + 1;
+            absoluteBestFitness.add(Math.min(mejor, anterior));
+            if (mostrarProgreso) {
+                System.out.println("Generación " + gen + " Mejor Fitness: " + mejor);
+            }
+            if (rutaMejor != null) {
+                progresoListener.generacionTerminada(new ProgresoGeneracion(gen, generaciones, mejor,
+                        suma / islas.size(), absoluteBestFitness.get(absoluteBestFitness.size() - 1), rutaMejor));
+            }
+        }
+    }
+
+    // Mejor individuo de todas las islas
+    public IndividuoRuta getMejor() {
+        IndividuoRuta mejor = null;
+        for (AlgorimoGeneticoRuta isla : islas) {
+            IndividuoRuta candidato = isla.getMejor();
+            if (mejor == null || candidato.getFitness() < mejor.getFitness()) {
+                mejor = candidato;
+            }
+        }
+        return mejor;
+    }
+
+    public int getNumIslas() {
+        return islas.size();
+    }
+
+    // Métricas de una isla concreta
+    public List<Double> getBestFitnessPerGeneration(int isla) {
+        return islas.get(isla).getBestFitnessPerGeneration();
+    }
+
+    // Getters para las métricas combinadas de evolución
+    public List<Double> getBestFitnessPerGeneration() {
+        return bestFitnessPerGeneration;
+    }
+
+    public List<Double> getAverageFitnessPerGeneration() {
+        return averageFitnessPerGeneration;
+    }
+
+    public List<Double> getAbsoluteBestFitness() {
+        return absoluteBestFitness;
+    }
+}
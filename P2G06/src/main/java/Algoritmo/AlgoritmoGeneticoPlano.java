@@ -0,0 +1,348 @@
+package Algoritmo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.random.RandomGenerator;
+import Model.CasaMap;
+
+/**
+ * Misma evolución que AlgorimoGeneticoRuta (elitismo, selección, cruce, mutación y
+ * reemplazo (μ + λ) sin duplicados exactos) sobre una PoblacionPlana en lugar de listas
+ * de IndividuoRuta.
+ * Tras la inicialización no se crean objetos por generación: las rutas se leen y
+ * escriben en el array plano, los operadores usan arrays de trabajo propios y la
+ * selección de supervivientes es un quickselect sobre un array de índices reutilizado.
+ * Pensado para poblaciones muy grandes (10^5 individuos o más).
+ */
+public class AlgoritmoGeneticoPlano {
+    private final PoblacionPlana poblacion;
+    private final int tamPoblacion;
+    private final int n;
+    private final int generaciones;
+    private final double probMutacion;
+    private final double probCruce;
+    private final DistanceMatrix distancias;
+    private final int fitnessType;
+    private final int crossoverMethod;
+    private final int mutationMethod;
+    private final OperadoresPlanos operadores;
+    private final SeleccionPadres seleccion;
+    private final RandomGenerator rng;
+    private final int[] indices; // Índices de fila para el reemplazo (μ + λ)
+
+    // Detección de rutas repetidas en el reemplazo: hash Zobrist de cada fila en una
+    // tabla con direccionamiento abierto (como en AlgorimoGeneticoRuta)
+    private final long[] zobrist;
+    private final long[] tablaHash;
+    private final int[] tablaFila;
+    private final int[] tablaSello; // Sello de la generación que ocupó cada casilla
+    private int sello;
+
+    // Métricas de evolución, una posición por generación
+    private final double[] mejorPorGeneracion;
+    private final double[] mediaPorGeneracion;
+    private final double[] mejorAbsoluto;
+    private int generacionesHechas;
+    private boolean mostrarProgreso = true;
+    private volatile boolean cancelado;
+    private ProgresoListener progresoListener;
+
+    // Criterios de parada anticipada (los mismos que AlgorimoGeneticoRuta) y motivo de la última parada
+    private final CriteriosParada parada = new CriteriosParada();
+    private MotivoParada motivoParada;
+    private long evaluaciones; // Fitness calculados, incluida la población inicial
+    private final int[] sucesorMejor, predecesorMejor; // Aristas del mejor, para medir la diversidad
+
+    public AlgoritmoGeneticoPlano(int tamPoblacion, int generaciones, double probMutacion, double probCruce,
+            CasaMap map, int fitnessType, int selectionMethod, int crossoverMethod, int mutationMethod) {
+        this(tamPoblacion, generaciones, probMutacion, probCruce, map, fitnessType,
+                selectionMethod, crossoverMethod, mutationMethod, new SplittableRandom());
+    }
+
+    // Igual que el anterior, con los números aleatorios de rng (misma semilla, misma evolución)
+    public AlgoritmoGeneticoPlano(int tamPoblacion, int generaciones, double probMutacion, double probCruce,
+            CasaMap map, int fitnessType, int selectionMethod, int crossoverMethod, int mutationMethod,
+            RandomGenerator rng) {
+        this.rng = rng;
+        this.tamPoblacion = tamPoblacion;
+        this.generaciones = generaciones;
+        this.probMutacion = probMutacion;
+        this.probCruce = probCruce;
+        this.distancias = map.getDistanceMatrix();
+        this.fitnessType = fitnessType;
+        this.crossoverMethod = crossoverMethod;
+        this.mutationMethod = mutationMethod;
+        this.n = map.getRooms().size();
+        // Población + hijos, más una fila de sobra para el segundo hijo del último cruce
+        poblacion = new PoblacionPlana(tamPoblacion, n, 2 * tamPoblacion + 1);
+        operadores = new OperadoresPlanos(n);
+        seleccion = new SeleccionPadres(selectionMethod, rng);
+        indices = new int[2 * tamPoblacion];
+        zobrist = IndividuoRuta.crearClavesZobrist(n);
+        int capacidad = Integer.highestOneBit(Math.max(2 * tamPoblacion, 1) * 2) << 1;
+        tablaHash = new long[capacidad];
+        tablaFila = new int[capacidad];
+        tablaSello = new int[capacidad];
+        sucesorMejor = new int[n + 1];
+        predecesorMejor = new int[n + 1];
+        mejorPorGeneracion = new double[generaciones];
+        mediaPorGeneracion = new double[generaciones];
+        mejorAbsoluto = new double[generaciones];
+        inicializarPoblacion();
+    }
+
+    private void inicializarPoblacion() {
+        int[] rutas = poblacion.getRutas();
+        double[] fitness = poblacion.getFitness();
+        for (int i = 0; i < tamPoblacion; i++) {
+            int off = poblacion.offset(i);
+            for (int k = 0; k < n; k++) {
+                rutas[off + k] = k + 1;
+            }
+            // Fisher-Yates sobre la fila
+            for (int k = n - 1; k > 0; k--) {
+                int j = rng.nextInt(k + 1);
+                int temp = rutas[off + k];
+                rutas[off + k] = rutas[off + j];
+                rutas[off + j] = temp;
+            }
+            fitness[i] = IndividuoRuta.fitness(distancias, fitnessType, rutas, off, n);
+        }
+        evaluaciones += tamPoblacion;
+    }
+
+    private int indiceMejor() {
+        double[] fitness = poblacion.getFitness();
+        int mejor = 0;
+        for (int i = 1; i < tamPoblacion; i++) {
+            if (fitness[i] < fitness[mejor]) mejor = i;
+        }
+        return mejor;
+    }
+
+    public void evolucionar() {
+        long inicio = System.nanoTime();
+        int sinMejora = 0;
+        motivoParada = MotivoParada.GENERACIONES;
+        for (int gen = 0; gen < generaciones; gen++) {
+            if (cancelado) {
+                motivoParada = MotivoParada.CANCELADO;
+                break;
+            }
+            avanzarGeneracion(gen);
+            sinMejora = gen == 0 || mejorAbsoluto[gen] < mejorAbsoluto[gen - 1] ? 0 : sinMejora + 1;
+            if (mostrarProgreso) {
+                System.out.println("Generación " + gen + " Mejor Fitness: " + mejorPorGeneracion[gen]);
+            }
+            if (progresoListener != null) {
+                int off = poblacion.offset(indiceMejor());
+                progresoListener.generacionTerminada(new ProgresoGeneracion(gen, generaciones, mejorPorGeneracion[gen],
+                        mediaPorGeneracion[gen], mejorAbsoluto[gen], Arrays.copyOfRange(poblacion.getRutas(), off, off + n)));
+            }
+            MotivoParada motivo = parada.comprobar(inicio, evaluaciones, sinMejora, this::getDiversidad);
+            if (motivo != null) {
+                motivoParada = motivo;
+                break;
+            }
+        }
+    }
+
+    // Para si el mejor global no mejora en k generaciones seguidas (0 = desactivado)
+    public void setParadaPorEstancamiento(int k) {
+        parada.setParadaPorEstancamiento(k);
+    }
+
+    // Para si la diversidad de la población (ver getDiversidad) baja de umbral (0 = desactivado)
+    public void setDiversidadMinima(double umbral) {
+        parada.setDiversidadMinima(umbral);
+    }
+
+    // Para al alcanzar maxEvaluaciones evaluaciones (ver getEvaluaciones; 0 = desactivado)
+    public void setMaxEvaluaciones(long maxEvaluaciones) {
+        parada.setMaxEvaluaciones(maxEvaluaciones);
+    }
+
+    // Presupuesto de tiempo de evolucionar (0 = sin límite); se termina la generación en curso
+    public void setPresupuestoTiempo(long milisegundos) {
+        parada.setPresupuestoTiempo(milisegundos);
+    }
+
+    // Motivo por el que terminó la última llamada a evolucionar (null si no se ha llamado)
+    public MotivoParada getMotivoParada() {
+        return motivoParada;
+    }
+
+    public int getGeneracionesEjecutadas() {
+        return generacionesHechas;
+    }
+
+    // Fitness calculados desde la creación del algoritmo (los hijos copiados sin mutar no cuentan)
+    public long getEvaluaciones() {
+        return evaluaciones;
+    }
+
+    /**
+     * Diversidad de la población, con la misma definición que AlgorimoGeneticoRuta: fracción
+     * media de aristas de cada ruta (incluidas las de la base) que no están en la del mejor.
+     */
+    public double getDiversidad() {
+        int[] rutas = poblacion.getRutas();
+        int mejor = poblacion.offset(indiceMejor());
+        int anterior = 0;
+        for (int i = 0; i <= n; i++) {
+            int actual = i < n ? rutas[mejor + i] : 0;
+            sucesorMejor[anterior] = actual;
+            predecesorMejor[actual] = anterior;
+            anterior = actual;
+        }
+        long distintas = 0;
+        for (int fila = 0; fila < tamPoblacion; fila++) {
+            int off = poblacion.offset(fila);
+            anterior = 0;
+            for (int i = 0; i <= n; i++) {
+                int actual = i < n ? rutas[off + i] : 0;
+                if (sucesorMejor[anterior] != actual && predecesorMejor[anterior] != actual) {
+                    distintas++;
+                }
+                anterior = actual;
+            }
+        }
+        return (double) distintas / ((long) tamPoblacion * (n + 1));
+    }
+
+    // Listener que recibe una instantánea al final de cada generación; null para quitarlo
+    public void setProgresoListener(ProgresoListener progresoListener) {
+        this.progresoListener = progresoListener;
+    }
+
+    // Detiene evolucionar() al terminar la generación en curso (se puede llamar desde otro hilo)
+    public void cancelar() {
+        cancelado = true;
+    }
+
+    // Activa o desactiva los mensajes por consola de cada generación (p. ej. en ejecuciones por lotes)
+    public void setMostrarProgreso(boolean mostrarProgreso) {
+        this.mostrarProgreso = mostrarProgreso;
+    }
+
+    private void avanzarGeneracion(int gen) {
+        int[] rutas = poblacion.getRutas();
+        double[] fitness = poblacion.getFitness();
+        int fin = 2 * tamPoblacion; // Los hijos ocupan las filas [tamPoblacion, fin)
+
+        // --- Elitismo: el primer hijo es una copia del mejor individuo ---
+        poblacion.copiarFila(indiceMejor(), tamPoblacion);
+        // Cada cruce usa dos padres y da hasta dos hijos
+        seleccion.preparar(fitness, tamPoblacion, 2 * (tamPoblacion / 2));
+        int hijo = tamPoblacion + 1;
+        while (hijo < fin) {
+            int padre1 = seleccion.siguiente();
+            int padre2 = seleccion.siguiente();
+            // El segundo hijo puede caer en la fila de sobra si la población ya está completa
+            int h1 = hijo, h2 = hijo + 1;
+            boolean copias; // Sin cruce los hijos son copias y conservan el fitness de los padres
+            if (rng.nextDouble() < probCruce) {
+                operadores.cruzar(rutas, poblacion.offset(padre1), poblacion.offset(padre2),
+                        poblacion.offset(h1), poblacion.offset(h2), crossoverMethod, rng);
+                copias = false;
+            } else {
+                poblacion.copiarFila(padre1, h1);
+                poblacion.copiarFila(padre2, h2);
+                copias = true;
+            }
+            for (int h = h1; h <= h2 && hijo < fin; h++, hijo++) {
+                boolean evaluado = copias;
+                if (rng.nextDouble() < probMutacion) {
+                    operadores.mutar(rutas, poblacion.offset(h), mutationMethod, rng);
+                    evaluado = false;
+                }
+                if (!evaluado) {
+                    fitness[h] = IndividuoRuta.fitness(distancias, fitnessType, rutas, poblacion.offset(h), n);
+                    evaluaciones++;
+                }
+            }
+        }
+
+        // --- Reemplazo (μ + λ): los tamPoblacion mejores de padres e hijos pasan al otro buffer ---
+        // Rutas distintas al principio de indices y duplicados al final
+        int unicos = 0, repetidos = fin;
+        sello++;
+        for (int i = 0; i < fin; i++) {
+            if (registrarRuta(rutas, i)) {
+                indices[unicos++] = i;
+            } else {
+                indices[--repetidos] = i;
+            }
+        }
+        if (unicos >= tamPoblacion) {
+            SeleccionParcial.menores(indices, 0, unicos, tamPoblacion, fitness);
+        } else {
+            // Pasan todas las rutas distintas y se completa con los mejores duplicados
+            SeleccionParcial.menores(indices, unicos, fin, tamPoblacion - unicos, fitness);
+        }
+        double mejor = Double.POSITIVE_INFINITY;
+        double suma = 0;
+        for (int i = 0; i < tamPoblacion; i++) {
+            int fila = indices[i];
+            poblacion.conservar(fila, i);
+            mejor = Math.min(mejor, fitness[fila]);
+            suma += fitness[fila];
+        }
+        poblacion.intercambiarBuffers();
+
+        mejorPorGeneracion[gen] = mejor;
+        mediaPorGeneracion[gen] = suma / tamPoblacion;
+        mejorAbsoluto[gen] = gen == 0 ? mejor : Math.min(mejorAbsoluto[gen - 1], mejor);
+        generacionesHechas = gen + 1;
+    }
+
+    // Inserta la ruta de la fila en la tabla hash; false si ya había una ruta igual
+    private boolean registrarRuta(int[] rutas, int fila) {
+        int off = poblacion.offset(fila);
+        long h = IndividuoRuta.hashZobrist(zobrist, rutas, off, n);
+        int mascara = tablaHash.length - 1;
+        int slot = (int) (h ^ (h >>> 32)) & mascara;
+        while (tablaSello[slot] == sello) {
+            int otro = poblacion.offset(tablaFila[slot]);
+            if (tablaHash[slot] == h && Arrays.equals(rutas, otro, otro + n, rutas, off, off + n)) {
+                return false;
+            }
+            slot = (slot + 1) & mascara;
+        }
+        tablaSello[slot] = sello;
+        tablaHash[slot] = h;
+        tablaFila[slot] = fila;
+        return true;
+    }
+
+    public IndividuoRuta getMejor() {
+        return poblacion.individuo(indiceMejor());
+    }
+
+    public PoblacionPlana getPoblacion() {
+        return poblacion;
+    }
+
+    // Getters para las métricas de evolución (copias de las generaciones ya ejecutadas)
+    public List<Double> getBestFitnessPerGeneration() {
+        return comoLista(mejorPorGeneracion);
+    }
+
+    public List<Double> getAverageFitnessPerGeneration() {
+        return comoLista(mediaPorGeneracion);
+    }
+
+    public List<Double> getAbsoluteBestFitness() {
+        return comoLista(mejorAbsoluto);
+    }
+
+    private List<Double> comoLista(double[] valores) {
+        List<Double> lista = new ArrayList<>(generacionesHechas);
+        for (int i = 0; i < generacionesHechas; i++) {
+            lista.add(valores[i]);
+        }
+        return lista;
+    }
+}
@@ -0,0 +1,16 @@
+package Algoritmo;
+
+import java.awt.Point;
+import java.util.List;
+
+/**
+ * Motor de búsqueda de caminos sobre la cuadrícula de un mapa.
+ * Las rutas son listas de Point (row, col) desde el inicio hasta la meta, ambos incluidos.
+ */
+public interface BuscadorRutas {
+    // Devuelve la ruta más corta o null si no existe camino
+    List<Point> calcularRuta(int startR, int startC, int goalR, int goalC);
+
+    // Devuelve el coste del camino más corto o POSITIVE_INFINITY si no existe
+    double calcularDistancia(int startR, int startC, int goalR, int goalC);
+}
@@ -0,0 +1,260 @@
+package Algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * Búsqueda local para el algoritmo memético: movimientos 2-opt y Or-opt sobre la ruta
+ * cerrada base -> habitaciones -> base, medidos con la matriz de distancias.
+ * Solo se prueban como nuevos vecinos los k puntos más cercanos de cada punto (listas
+ * de candidatos precalculadas) y los puntos que no mejoraron se marcan con un bit
+ * "don't look" hasta que cambie alguna de sus aristas. Supone distancias simétricas,
+ * como las de la cuadrícula. Cada instancia reutiliza sus arrays: no es segura entre hilos.
+ */
+public class BusquedaLocal {
+    public static final int VECINOS_POR_DEFECTO = 8;
+    private static final int MAX_SEGMENTO = 3; // Longitud máxima de los segmentos de Or-opt
+    private static final double EPS = 1e-9;
+
+    private final DistanceMatrix distancias;
+    private final int m;            // Puntos de la ruta cerrada: base + habitaciones
+    private final int[][] cercanos; // k puntos más cercanos de cada punto, de menor a mayor distancia
+
+    // Ruta cerrada en un array circular y posición de cada punto
+    private final int[] tour;
+    private final int[] pos;
+    private final int[] auxiliar;
+    // Cola de puntos pendientes de revisar (los que no están tienen el bit "don't look")
+    private final int[] cola;
+    private final boolean[] enCola;
+    private int inicioCola, tamCola;
+
+    public BusquedaLocal(DistanceMatrix distancias) {
+        this(distancias, VECINOS_POR_DEFECTO);
+    }
+
+    public BusquedaLocal(DistanceMatrix distancias, int k) {
+        this.distancias = distancias;
+        this.m = distancias.size();
+        int vecinos = Math.min(k, m - 1);
+        cercanos = new int[m][vecinos];
+        Integer[] orden = new Integer[m];
+        for (int i = 0; i < m; i++) {
+            final int p = i;
+            for (int j = 0; j < m; j++) {
+                orden[j] = j;
+            }
+            Arrays.sort(orden, (a, b) -> Double.compare(distancias.get(p, a), distancias.get(p, b)));
+            int c = 0;
+            for (int j = 0; j < m && c < vecinos; j++) {
+                if (orden[j] != p) {
+                    cercanos[i][c++] = orden[j];
+                }
+            }
+        }
+        tour = new int[m];
+        pos = new int[m];
+        auxiliar = new int[m];
+        cola = new int[m];
+        enCola = new boolean[m];
+    }
+
+    /**
+     * Mejora la ruta del individuo hasta un óptimo local de 2-opt y Or-opt.
+     * Devuelve la variación de la distancia total (0 si no hubo mejora, negativa si la hubo);
+     * el fitness del individuo no se actualiza.
+     */
+    public double mejorar(IndividuoRuta individuo) {
+        int[] ruta = individuo.getRuta();
+        tour[0] = 0;
+        System.arraycopy(ruta, 0, tour, 1, m - 1);
+        for (int i = 0; i < m; i++) {
+            pos[tour[i]] = i;
+        }
+        inicioCola = 0;
+        tamCola = 0;
+        for (int i = 0; i < m; i++) {
+            encolar(tour[i]);
+        }
+
+        double total = 0;
+        while (tamCola > 0) {
+            int a = cola[inicioCola];
+            inicioCola = (inicioCola + 1) % m;
+            tamCola--;
+            enCola[a] = false;
+            double delta = dosOpt(a);
+            if (delta == 0) {
+                delta = orOpt(a);
+            }
+            total += delta;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        // La ruta vuelve a empezar justo después de la base
+        int base = pos[0];
+        for (int i = 0; i < m - 1; i++) {
+            ruta[i] = tour[(base + 1 + i) % m];
+        }
+        individuo.invalidarHash();
+        return total;
+    }
+
+    private double d(int a, int b) {
+        return distancias.get(a, b);
+    }
+
+    private int sucesor(int p) {
+        return tour[(pos[p] + 1) % m];
+    }
+
+    private int predecesor(int p) {
+        return tour[(pos[p] - 1 + m) % m];
+    }
+
+    private void encolar(int p) {
+        if (!enCola[p]) {
+            enCola[p] = true;
+            cola[(inicioCola + tamCola) % m] = p;
+            tamCola++;
+        }
+    }
+
+    // --- 2-opt ---
+
+    // Prueba a sustituir una arista de a por una arista hacia un candidato cercano
+    private double dosOpt(int a) {
+        for (int sentido = 0; sentido < 2; sentido++) {
+            boolean adelante = sentido == 0;
+            int b = adelante ? sucesor(a) : predecesor(a);
+            double dab = d(a, b);
+            for (int c : cercanos[a]) {
+                double dac = d(a, c);
+                if (dac >= dab) {
+                    break; // El resto de candidatos están aún más lejos
+                }
+                int e = adelante ? sucesor(c) : predecesor(c);
+                if (c == b || e == a) {
+                    continue;
+                }
+                double delta = dac + d(b, e) - dab - d(c, e);
+                if (delta < -EPS) {
+                    // a -> b ... c -> e  pasa a  a -> c ... b -> e (y simétrico hacia atrás)
+                    if (adelante) {
+                        invertir(pos[b], pos[c]);
+                    } else {
+                        invertir(pos[c], pos[b]);
+                    }
+                    encolar(a);
+                    encolar(b);
+                    encolar(c);
+                    encolar(e);
+                    return delta;
+                }
+            }
+        }
+        return 0;
+    }
+
+    // Invierte el tramo circular tour[i .. j]; si es más corto, invierte el complementario
+    private void invertir(int i, int j) {
+        int largo = (j - i + m) % m + 1;
+        if (2 * largo > m) {
+            int temp = (j + 1) % m;
+            j = (i - 1 + m) % m;
+            i = temp;
+            largo = m - largo;
+        }
+        for (int k = 0; k < largo / 2; k++) {
+            int x = tour[i], y = tour[j];
+            tour[i] = y;
+            pos[y] = i;
+            tour[j] = x;
+            pos[x] = j;
+            i = (i + 1) % m;
+            j = (j - 1 + m) % m;
+        }
+    }
+
+    // --- Or-opt ---
+
+    // Prueba a mover el segmento de 1 a MAX_SEGMENTO puntos que empieza en a junto a un candidato cercano
+    private double orOpt(int a) {
+        int s1 = a;
+        int s2 = a;
+        for (int largo = 1; largo <= MAX_SEGMENTO && largo < m - 2; largo++) {
+            if (largo > 1) {
+                s2 = sucesor(s2);
+            }
+            int p = predecesor(s1);
+            int nx = sucesor(s2);
+            double ganancia = d(p, s1) + d(s2, nx) - d(p, nx);
+            if (!(ganancia > EPS)) {
+                continue;
+            }
+            for (int extremo = 0; extremo < 2; extremo++) {
+                int s = extremo == 0 ? s1 : s2;
+                for (int c : cercanos[s]) {
+                    if (d(s, c) >= ganancia) {
+                        break; // La nueva arista ya costaría más de lo que se gana
+                    }
+                    if (dentroSegmento(c, s1, largo)) {
+                        continue;
+                    }
+                    // Huecos junto a c: (c, sucesor) y (predecesor, c)
+                    for (int lado = 0; lado < 2; lado++) {
+                        int x = lado == 0 ? c : predecesor(c);
+                        int y = lado == 0 ? sucesor(c) : c;
+                        if (dentroSegmento(x, s1, largo) || dentroSegmento(y, s1, largo)) {
+                            continue;
+                        }
+                        double coste = d(x, y);
+                        // Segmento en su sentido (x -> s1 .. s2 -> y) o invertido (x -> s2 .. s1 -> y)
+                        double directo = d(x, s1) + d(s2, y) - coste;
+                        double invertido = d(x, s2) + d(s1, y) - coste;
+                        boolean invertir = invertido < directo;
+                        double delta = Math.min(directo, invertido) - ganancia;
+                        if (delta < -EPS) {
+                            moverSegmento(s1, largo, x, invertir);
+                            encolar(p);
+                            encolar(nx);
+                            encolar(s1);
+                            encolar(s2);
+                            encolar(x);
+                            encolar(y);
+                            return delta;
+                        }
+                    }
+                }
+            }
+        }
+        return 0;
+    }
+
+    // Indica si el punto q está en el segmento de largo puntos que empieza en s1
+    private boolean dentroSegmento(int q, int s1, int largo) {
+        return (pos[q] - pos[s1] + m) % m < largo;
+    }
+
+    // Reconstruye la ruta sacando el segmento y colocándolo justo después de x
+    private void moverSegmento(int s1, int largo, int x, boolean invertido) {
+        int inicio = pos[s1];
+        int k = 0;
+        int i = (inicio + largo) % m;
+        for (int resto = 0; resto < m - largo; resto++) {
+            int q = tour[i];
+            auxiliar[k++] = q;
+            if (q == x) {
+                for (int t = 0; t < largo; t++) {
+                    int desplazamiento = invertido ? largo - 1 - t : t;
+                    auxiliar[k++] = tour[(inicio + desplazamiento) % m];
+                }
+            }
+            i = (i + 1) % m;
+        }
+        for (int t = 0; t < m; t++) {
+            tour[t] = auxiliar[t];
+            pos[auxiliar[t]] = t;
+        }
+    }
+}
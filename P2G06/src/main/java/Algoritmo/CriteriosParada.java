@@ -0,0 +1,53 @@
+package Algoritmo;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Criterios de parada anticipada de los motores (0 = desactivado). Se comprueban al final
+ * de cada generación en este orden: tiempo, evaluaciones, estancamiento y diversidad.
+ * La diversidad solo se calcula si hay umbral, porque recorre toda la población.
+ */
+final class CriteriosParada {
+    private int maxGeneracionesSinMejora;
+    private double diversidadMinima;
+    private long maxEvaluaciones;
+    private long presupuestoNanos;
+
+    void setParadaPorEstancamiento(int k) {
+        maxGeneracionesSinMejora = Math.max(0, k);
+    }
+
+    void setDiversidadMinima(double umbral) {
+        diversidadMinima = Math.max(0, umbral);
+    }
+
+    void setMaxEvaluaciones(long maxEvaluaciones) {
+        this.maxEvaluaciones = Math.max(0, maxEvaluaciones);
+    }
+
+    void setPresupuestoTiempo(long milisegundos) {
+        presupuestoNanos = Math.max(0, milisegundos) * 1_000_000;
+    }
+
+    // Se ha agotado el presupuesto de tiempo de la ejecución que empezó en inicio (System.nanoTime)
+    boolean tiempoAgotado(long inicio) {
+        return presupuestoNanos > 0 && System.nanoTime() - inicio >= presupuestoNanos;
+    }
+
+    // Criterio que se cumple tras la generación; null si ninguno
+    MotivoParada comprobar(long inicio, long evaluaciones, int sinMejora, DoubleSupplier diversidad) {
+        if (tiempoAgotado(inicio)) {
+            return MotivoParada.TIEMPO;
+        }
+        if (maxEvaluaciones > 0 && evaluaciones >= maxEvaluaciones) {
+            return MotivoParada.EVALUACIONES;
+        }
+        if (maxGeneracionesSinMejora > 0 && sinMejora >= maxGeneracionesSinMejora) {
+            return MotivoParada.ESTANCAMIENTO;
+        }
+        if (diversidadMinima > 0 && diversidad.getAsDouble() < diversidadMinima) {
+            return MotivoParada.DIVERSIDAD;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,129 @@
+package Algoritmo;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import Model.WalkableBitGrid;
+
+/**
+ * Campo de distancias de una sola fuente: número de pasos (4 direcciones) desde
+ * cada celda del mapa hasta un punto (una habitación o la base), calculado con un BFS.
+ * Se guarda en un short[] si el mapa es lo bastante pequeño y en un int[] si no.
+ * La distancia de cualquier celda es O(1) y la ruta se reconstruye descendiendo por
+ * el campo en O(longitud de la ruta), sin volver a buscar.
+ */
+public class DistanceField {
+    private static final int[] DR = { -1, 1, 0, 0 };
+    private static final int[] DC = { 0, 0, -1, 1 };
+
+    private final int rows, cols;
+    private final int sourceR, sourceC;
+    private final short[] pasosCortos; // Mapas de hasta Short.MAX_VALUE celdas
+    private final int[] pasosLargos;   // Resto de mapas
+
+    public DistanceField(char[][] grid, int sourceR, int sourceC) {
+        this(new WalkableBitGrid(grid), sourceR, sourceC);
+    }
+
+    public DistanceField(WalkableBitGrid transitables, int sourceR, int sourceC) {
+        this.rows = transitables.getRows();
+        this.cols = transitables.getCols();
+        this.sourceR = sourceR;
+        this.sourceC = sourceC;
+        int cells = rows * cols;
+        int[] pasos = new int[cells];
+        Arrays.fill(pasos, -1);
+
+        // BFS desde la fuente (coste uniforme)
+        int[] cola = new int[cells];
+        int cabeza = 0, fin = 0;
+        int source = sourceR * cols + sourceC;
+        pasos[source] = 0;
+        cola[fin++] = source;
+        while (cabeza < fin) {
+            int current = cola[cabeza++];
+            int r = current / cols, c = current - r * cols;
+            for (int d = 0; d < 4; d++) {
+                int nr = r + DR[d], nc = c + DC[d];
+                // El borde de WalkableBitGrid es obstáculo: no hace falta comprobar límites
+                if (!transitables.libre(nr, nc)) {
+                    continue;
+                }
+                int next = nr * cols + nc;
+                if (pasos[next] == -1) {
+                    pasos[next] = pasos[current] + 1;
+                    cola[fin++] = next;
+                }
+            }
+        }
+
+        if (cells <= Short.MAX_VALUE) {
+            pasosCortos = new short[cells];
+            for (int i = 0; i < cells; i++) {
+                pasosCortos[i] = (short) pasos[i];
+            }
+            pasosLargos = null;
+        } else {
+            pasosCortos = null;
+            pasosLargos = pasos;
+        }
+    }
+
+    // Número de pasos desde la celda hasta la fuente, o -1 si no es alcanzable
+    public int pasos(int r, int c) {
+        if (r < 0 || r >= rows || c < 0 || c >= cols) {
+            return -1;
+        }
+        int cell = r * cols + c;
+        return pasosCortos != null ? pasosCortos[cell] : pasosLargos[cell];
+    }
+
+    // Distancia desde la celda hasta la fuente; POSITIVE_INFINITY si no es alcanzable
+    public double distancia(int r, int c) {
+        int p = pasos(r, c);
+        return p < 0 ? Double.POSITIVE_INFINITY : p;
+    }
+
+    /**
+     * Ruta desde (r, c) hasta la fuente, ambos incluidos, bajando una unidad del campo
+     * en cada paso. Se mantiene la dirección anterior mientras sea posible para evitar
+     * giros innecesarios. Devuelve null si la celda no alcanza la fuente.
+     */
+    public List<Point> rutaDesde(int r, int c) {
+        int p = pasos(r, c);
+        if (p < 0) {
+            return null;
+        }
+        List<Point> ruta = new ArrayList<>(p + 1);
+        ruta.add(new Point(r, c));
+        int dir = -1;
+        while (p > 0) {
+            int siguiente = -1;
+            if (dir != -1 && pasos(r + DR[dir], c + DC[dir]) == p - 1) {
+                siguiente = dir;
+            } else {
+                for (int d = 0; d < 4; d++) {
+                    if (pasos(r + DR[d], c + DC[d]) == p - 1) {
+                        siguiente = d;
+                        break;
+                    }
+                }
+            }
+            dir = siguiente;
+            r += DR[dir];
+            c += DC[dir];
+            p--;
+            ruta.add(new Point(r, c));
+        }
+        return ruta;
+    }
+
+    public int getSourceRow() {
+        return sourceR;
+    }
+
+    public int getSourceCol() {
+        return sourceC;
+    }
+}
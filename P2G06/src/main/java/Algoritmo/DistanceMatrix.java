@@ -0,0 +1,117 @@
+package Algoritmo;
+
+import java.awt.Point;
+import java.util.List;
+import java.util.stream.IntStream;
+import Model.CasaMap;
+import Model.Room;
+import Model.WalkableBitGrid;
+
+/**
+ * Matriz de distancias entre la base y todas las habitaciones de un mapa.
+ * El índice 0 corresponde a la base y el índice i (1..n) a la habitación con ID i,
+ * de modo que los valores de IndividuoRuta.ruta se usan directamente como índices.
+ * Se calcula una sola vez por mapa (en paralelo) y después solo se consulta.
+ *
+ * Salvo en modo HPA, por cada punto se construye un DistanceField (un BFS por punto
+ * en lugar de una búsqueda A* por pareja); las rutas entre puntos y la distancia desde
+ * cualquier celda a un punto se obtienen directamente de los campos. En modo HPA
+ * (mapas muy grandes, donde un campo por punto ocuparía demasiado) se usa AStar.
+ */
+public class DistanceMatrix {
+    private final CasaMap map;
+    private final int size;       // Número de puntos: base + habitaciones
+    private final double[] dist;  // Matriz plana size x size
+    private final int[] filas;
+    private final int[] columnas;
+    private final DistanceField[] campos; // null en modo HPA
+    private volatile TablaSuavidad suavidad; // Se construye la primera vez que se usa el fitness de suavidad
+
+    public DistanceMatrix(CasaMap map) {
+        this.map = map;
+        List<Room> rooms = map.getRooms();
+        size = rooms.size() + 1;
+        dist = new double[size * size];
+
+        // Coordenadas de cada punto: índice 0 = base, índice i = habitación i
+        filas = new int[size];
+        columnas = new int[size];
+        filas[0] = map.getBaseRow();
+        columnas[0] = map.getBaseCol();
+        for (int i = 0; i < rooms.size(); i++) {
+            filas[i + 1] = rooms.get(i).getRow();
+            columnas[i + 1] = rooms.get(i).getCol();
+        }
+
+        if (map.getModoBusqueda() != ModoBusqueda.HPA) {
+            // Un campo de distancias por punto, en paralelo; cada fila de la matriz sale de un campo
+            WalkableBitGrid transitables = map.getTransitables();
+            campos = new DistanceField[size];
+            IntStream.range(0, size).parallel().forEach(j -> campos[j] = new DistanceField(transitables, filas[j], columnas[j]));
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < size; j++) {
+                    dist[i * size + j] = campos[j].distancia(filas[i], columnas[i]);
+                }
+            }
+        } else {
+            // Las distancias en la cuadrícula son simétricas: solo se calcula el triángulo superior
+            campos = null;
+            IntStream.range(0, size * size).parallel().forEach(k -> {
+                int i = k / size;
+                int j = k % size;
+                if (i < j) {
+                    AStar astar = new AStar(map);
+                    double d = astar.calcularDistancia(filas[i], columnas[i], filas[j], columnas[j]);
+                    dist[i * size + j] = d;
+                    dist[j * size + i] = d;
+                }
+            });
+        }
+    }
+
+    // Distancia (número de pasos) entre dos puntos; POSITIVE_INFINITY si no hay camino
+    public double get(int desde, int hasta) {
+        return dist[desde * size + hasta];
+    }
+
+    // Distancia desde una celda cualquiera (p. ej. la posición actual del robot) hasta el punto
+    public double distanciaDesde(int r, int c, int punto) {
+        if (campos != null) {
+            return campos[punto].distancia(r, c);
+        }
+        return new AStar(map).calcularDistancia(r, c, filas[punto], columnas[punto]);
+    }
+
+    // Ruta desde una celda cualquiera hasta el punto (ambos incluidos); null si no hay camino
+    public List<Point> rutaDesde(int r, int c, int punto) {
+        if (campos != null) {
+            return campos[punto].rutaDesde(r, c);
+        }
+        return new AStar(map).calcularRuta(r, c, filas[punto], columnas[punto]);
+    }
+
+    // Ruta entre dos puntos (ambos incluidos); null si no hay camino
+    public List<Point> ruta(int desde, int hasta) {
+        return rutaDesde(filas[desde], columnas[desde], hasta);
+    }
+
+    // Tablas de giros por tramo para el fitness de suavidad. Se llama en cada evaluación, desde
+    // varios hilos: una vez construida la tabla, la lectura volátil no toma ningún cerrojo
+    public TablaSuavidad getTablaSuavidad() {
+        TablaSuavidad tabla = suavidad;
+        if (tabla == null) {
+            synchronized (this) {
+                tabla = suavidad;
+                if (tabla == null) {
+                    tabla = new TablaSuavidad(this);
+                    suavidad = tabla;
+                }
+            }
+        }
+        return tabla;
+    }
+
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,13 @@
+package Algoritmo;
+
+/**
+ * Fases de una generación de AlgorimoGeneticoRuta cuyo tiempo se mide por separado.
+ */
+public enum FaseGeneracion {
+    SELECCION,      // Preparar las tablas de selección y elegir los padres (incluye el elitismo)
+    CRUCE,          // Cruce de cada pareja o copia de los padres
+    MUTACION,       // Mutación de los hijos (con el delta de fitness cuando se puede)
+    EVALUACION,     // Fitness de los hijos que no lo conocen todavía
+    BUSQUEDA_LOCAL, // Búsqueda local opcional y reevaluación de los hijos mejorados
+    REEMPLAZO;      // Reemplazo (μ + λ) y registro del mejor y la media
+}
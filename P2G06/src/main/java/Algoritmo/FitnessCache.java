@@ -0,0 +1,123 @@
+package Algoritmo;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caché de fitness por ruta para una ejecución del algoritmo genético (un mapa y un tipo
+ * de fitness). La clave es el hash Zobrist de IndividuoRuta; cada entrada guarda también
+ * una copia de la ruta para descartar colisiones. Está repartida en segmentos con su
+ * propio cerrojo, para que los hilos de evaluación no se esperen entre sí, y cada
+ * segmento tiene el tamaño acotado con política LRU.
+ */
+public class FitnessCache {
+    public static final int CAPACIDAD_POR_DEFECTO = 50000;
+    private static final int SEGMENTOS = 16; // Potencia de 2: el segmento se elige con una máscara
+
+    private static class Entrada {
+        final int[] ruta;
+        final double fitness;
+
+        Entrada(int[] ruta, double fitness) {
+            this.ruta = ruta;
+            this.fitness = fitness;
+        }
+    }
+
+    private final Map<Long, Entrada>[] segmentos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public FitnessCache() {
+        this(CAPACIDAD_POR_DEFECTO);
+    }
+
+    @SuppressWarnings("unchecked")
+    public FitnessCache(int capacidad) {
+        int capacidadSegmento = Math.max(1, (capacidad + SEGMENTOS - 1) / SEGMENTOS);
+        this.segmentos = new Map[SEGMENTOS];
+        for (int s = 0; s < SEGMENTOS; s++) {
+            // LinkedHashMap en orden de acceso: se descarta la ruta usada hace más tiempo
+            segmentos[s] = new LinkedHashMap<Long, Entrada>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Entrada> eldest) {
+                    return size() > capacidadSegmento;
+                }
+            };
+        }
+    }
+
+    // Segmento de una clave; usa los bits altos porque los bajos ya reparten dentro del mapa
+    private Map<Long, Entrada> segmento(long hash) {
+        return segmentos[(int) (hash >>> 60) & (SEGMENTOS - 1)];
+    }
+
+    /**
+     * Asigna al individuo el fitness guardado para su ruta. Devuelve false (y cuenta un
+     * fallo) si la ruta no está en caché.
+     */
+    public boolean buscar(IndividuoRuta ind) {
+        // El hash y la clave se calculan fuera del cerrojo; dentro solo se consulta el mapa
+        Long clave = ind.getHash();
+        Map<Long, Entrada> seg = segmento(clave);
+        Entrada e;
+        synchronized (seg) {
+            e = seg.get(clave);
+        }
+        // Las entradas no cambian una vez creadas, así que se comparan sin cerrojo
+        if (e != null && Arrays.equals(e.ruta, ind.getRuta())) {
+            ind.asignarFitness(e.fitness);
+            hits.increment();
+            return true;
+        }
+        misses.increment();
+        return false;
+    }
+
+    // Guarda el fitness ya calculado del individuo
+    public void guardar(IndividuoRuta ind) {
+        Long clave = ind.getHash();
+        Entrada e = new Entrada(ind.getRuta().clone(), ind.getFitness());
+        Map<Long, Entrada> seg = segmento(clave);
+        synchronized (seg) {
+            seg.put(clave, e);
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    // Fracción de consultas servidas desde la caché (0 si no hubo consultas)
+    public double getTasaAciertos() {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return total == 0 ? 0 : (double) h / total;
+    }
+
+    public int size() {
+        int total = 0;
+        for (Map<Long, Entrada> seg : segmentos) {
+            synchronized (seg) {
+                total += seg.size();
+            }
+        }
+        return total;
+    }
+
+    public void clear() {
+        for (Map<Long, Entrada> seg : segmentos) {
+            synchronized (seg) {
+                seg.clear();
+            }
+        }
+        hits.reset();
+        misses.reset();
+    }
+}
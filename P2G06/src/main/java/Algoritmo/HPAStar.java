@@ -0,0 +1,404 @@
+package Algoritmo;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import Model.WalkableBitGrid;
+
+/**
+ * Búsqueda jerárquica de caminos (HPA*) para cuadrículas grandes, en 4 direcciones.
+ * La cuadrícula se divide en clusters de tam x tam celdas. En cada borde entre dos
+ * clusters vecinos se colocan nodos de entrada (uno por hueco corto, dos en los
+ * extremos si el hueco es largo) y se precalcula una sola vez un grafo abstracto con:
+ * - aristas entre clusters (entrada a un lado y al otro del borde, coste 1),
+ * - aristas internas con la distancia óptima entre entradas del mismo cluster.
+ * Una consulta solo conecta el inicio y la meta con las entradas de su cluster y
+ * busca en el grafo abstracto, así que su coste crece con el número de clusters y no
+ * con el de celdas. La ruta celda a celda solo se refina (búsquedas locales dentro de
+ * cada cluster) cuando se pide con calcularRuta.
+ * Los caminos son casi óptimos: pueden ser algo más largos que los de AStarEngine.
+ */
+public class HPAStar implements BuscadorRutas {
+    public static final int TAM_CLUSTER_POR_DEFECTO = 16;
+
+    // Los huecos de al menos esta longitud reciben dos entradas (una en cada extremo)
+    private static final int HUECO_LARGO = 6;
+
+    private static final int[] DR = { -1, 1, 0, 0 };
+    private static final int[] DC = { 0, 0, -1, 1 };
+
+    private final WalkableBitGrid transitables;
+    private final int rows, cols;
+    private final int tam;
+    private final int clusterRows, clusterCols;
+
+    // Grafo abstracto: nodos de entrada
+    private final int numNodos;
+    private final int[] nodoCelda;        // Índice plano (fila * cols + col) de cada nodo
+    private final int[] nodoCluster;      // Cluster al que pertenece cada nodo
+    private final int[] nodoPosicion;     // Posición del nodo dentro de nodosPorCluster
+    private final int[][] nodosPorCluster;
+
+    // Aristas entre clusters en formato CSR (coste 1)
+    private final int[] interInicio;
+    private final int[] interDestino;
+
+    // Distancias internas de cada cluster: costeIntra[cluster][i * k + j]
+    private final double[][] costeIntra;
+
+    public HPAStar(char[][] grid) {
+        this(new WalkableBitGrid(grid), TAM_CLUSTER_POR_DEFECTO);
+    }
+
+    public HPAStar(char[][] grid, int tamCluster) {
+        this(new WalkableBitGrid(grid), tamCluster);
+    }
+
+    public HPAStar(WalkableBitGrid transitables, int tamCluster) {
+        this.transitables = transitables;
+        this.rows = transitables.getRows();
+        this.cols = transitables.getCols();
+        this.tam = tamCluster;
+        this.clusterRows = (rows + tam - 1) / tam;
+        this.clusterCols = (cols + tam - 1) / tam;
+        int numClusters = clusterRows * clusterCols;
+
+        // 1. Entradas en los bordes entre clusters
+        Map<Integer, Integer> nodoDeCelda = new HashMap<>();
+        List<Integer> celdas = new ArrayList<>();
+        List<int[]> aristasInter = new ArrayList<>();
+        for (int cr = 0; cr < clusterRows; cr++) {
+            for (int cc = 0; cc < clusterCols; cc++) {
+                int r0 = cr * tam, c0 = cc * tam;
+                int r1 = Math.min(r0 + tam, rows), c1 = Math.min(c0 + tam, cols);
+                // Borde derecho: columnas c1 - 1 | c1
+                if (c1 < cols) {
+                    detectarEntradas(r0, r1, c1 - 1, true, nodoDeCelda, celdas, aristasInter);
+                }
+                // Borde inferior: filas r1 - 1 | r1
+                if (r1 < rows) {
+                    detectarEntradas(c0, c1, r1 - 1, false, nodoDeCelda, celdas, aristasInter);
+                }
+            }
+        }
+
+        numNodos = celdas.size();
+        nodoCelda = new int[numNodos];
+        nodoCluster = new int[numNodos];
+        nodoPosicion = new int[numNodos];
+        int[] nodosEnCluster = new int[numClusters];
+        for (int n = 0; n < numNodos; n++) {
+            nodoCelda[n] = celdas.get(n);
+            nodoCluster[n] = clusterDe(nodoCelda[n]);
+            nodoPosicion[n] = nodosEnCluster[nodoCluster[n]]++;
+        }
+        nodosPorCluster = new int[numClusters][];
+        for (int k = 0; k < numClusters; k++) {
+            nodosPorCluster[k] = new int[nodosEnCluster[k]];
+        }
+        for (int n = 0; n < numNodos; n++) {
+            nodosPorCluster[nodoCluster[n]][nodoPosicion[n]] = n;
+        }
+
+        // 2. Aristas entre clusters (no dirigidas) en formato CSR
+        interInicio = new int[numNodos + 1];
+        for (int[] a : aristasInter) {
+            interInicio[a[0] + 1]++;
+            interInicio[a[1] + 1]++;
+        }
+        for (int n = 0; n < numNodos; n++) {
+            interInicio[n + 1] += interInicio[n];
+        }
+        interDestino = new int[interInicio[numNodos]];
+        int[] siguiente = interInicio.clone();
+        for (int[] a : aristasInter) {
+            interDestino[siguiente[a[0]]++] = a[1];
+            interDestino[siguiente[a[1]]++] = a[0];
+        }
+
+        // 3. Distancias internas: un Dijkstra acotado por entrada, clusters en paralelo
+        costeIntra = new double[numClusters][];
+        IntStream.range(0, numClusters).parallel().forEach(this::calcularCosteIntra);
+    }
+
+    /**
+     * Recorre un borde entre dos clusters y crea las entradas de cada hueco transitable.
+     * Si vertical, el borde separa las columnas linea y linea + 1 entre las filas [desde, hasta);
+     * si no, separa las filas linea y linea + 1 entre las columnas [desde, hasta).
+     */
+    private void detectarEntradas(int desde, int hasta, int linea, boolean vertical,
+            Map<Integer, Integer> nodoDeCelda, List<Integer> celdas, List<int[]> aristasInter) {
+        int inicioHueco = -1;
+        for (int i = desde; i <= hasta; i++) {
+            boolean libre = i < hasta && (vertical
+                    ? isWalkable(i, linea) && isWalkable(i, linea + 1)
+                    : isWalkable(linea, i) && isWalkable(linea + 1, i));
+            if (libre && inicioHueco == -1) {
+                inicioHueco = i;
+            } else if (!libre && inicioHueco != -1) {
+                int fin = i - 1;
+                if (fin - inicioHueco + 1 < HUECO_LARGO) {
+                    crearEntrada((inicioHueco + fin) / 2, linea, vertical, nodoDeCelda, celdas, aristasInter);
+                } else {
+                    crearEntrada(inicioHueco, linea, vertical, nodoDeCelda, celdas, aristasInter);
+                    crearEntrada(fin, linea, vertical, nodoDeCelda, celdas, aristasInter);
+                }
+                inicioHueco = -1;
+            }
+        }
+    }
+
+    private void crearEntrada(int i, int linea, boolean vertical,
+            Map<Integer, Integer> nodoDeCelda, List<Integer> celdas, List<int[]> aristasInter) {
+        int a = vertical ? i * cols + linea : linea * cols + i;
+        int b = vertical ? a + 1 : a + cols;
+        aristasInter.add(new int[] { obtenerNodo(a, nodoDeCelda, celdas), obtenerNodo(b, nodoDeCelda, celdas) });
+    }
+
+    private int obtenerNodo(int cell, Map<Integer, Integer> nodoDeCelda, List<Integer> celdas) {
+        Integer nodo = nodoDeCelda.get(cell);
+        if (nodo == null) {
+            nodo = celdas.size();
+            nodoDeCelda.put(cell, nodo);
+            celdas.add(cell);
+        }
+        return nodo;
+    }
+
+    private void calcularCosteIntra(int cluster) {
+        int[] nodos = nodosPorCluster[cluster];
+        int k = nodos.length;
+        double[] costes = new double[k * k];
+        SearchWorkspace ws = SearchWorkspace.get();
+        for (int i = 0; i < k; i++) {
+            buscarEnCluster(ws, cluster, nodoCelda[nodos[i]], -1);
+            for (int j = 0; j < k; j++) {
+                costes[i * k + j] = costeAlcanzado(ws, cluster, nodoCelda[nodos[j]]);
+            }
+        }
+        costeIntra[cluster] = costes;
+    }
+
+    // Verifica si la celda es transitable (dentro de límites y no es obstáculo)
+    private boolean isWalkable(int r, int c) {
+        return transitables.esTransitable(r, c);
+    }
+
+    private int clusterDe(int cell) {
+        return (cell / cols / tam) * clusterCols + (cell % cols) / tam;
+    }
+
+    private double manhattan(int a, int b) {
+        return Math.abs(a / cols - b / cols) + Math.abs(a % cols - b % cols);
+    }
+
+    /**
+     * A* (o Dijkstra si goalCell es -1) limitado a las celdas del cluster.
+     * Usa índices locales al cluster para que el espacio de trabajo no dependa del tamaño del mapa.
+     * Devuelve el coste hasta la meta, o 0 si se exploró el cluster completo.
+     */
+    private double buscarEnCluster(SearchWorkspace ws, int cluster, int startCell, int goalCell) {
+        int r0 = (cluster / clusterCols) * tam, c0 = (cluster % clusterCols) * tam;
+        int alto = Math.min(tam, rows - r0), ancho = Math.min(tam, cols - c0);
+        ws.prepare(alto * ancho);
+        int stamp = ws.stamp;
+        int start = (startCell / cols - r0) * ancho + (startCell % cols - c0);
+        int goal = goalCell < 0 ? -1 : (goalCell / cols - r0) * ancho + (goalCell % cols - c0);
+
+        ws.g[start] = 0.0;
+        ws.gStamp[start] = stamp;
+        ws.push(start, goalCell < 0 ? 0.0 : manhattan(startCell, goalCell), 0.0, -1);
+        while (ws.heapSize > 0) {
+            ws.poll();
+            int current = ws.topCell;
+            if (ws.closedStamp[current] == stamp) {
+                continue;
+            }
+            ws.closedStamp[current] = stamp;
+            ws.parent[current] = ws.topParent;
+            double currentG = ws.topG;
+            if (current == goal) {
+                return currentG;
+            }
+            int lr = current / ancho, lc = current - lr * ancho;
+            for (int d = 0; d < 4; d++) {
+                int nr = lr + DR[d], nc = lc + DC[d];
+                if (nr < 0 || nr >= alto || nc < 0 || nc >= ancho || !transitables.libre(r0 + nr, c0 + nc)) {
+                    continue;
+                }
+                int next = nr * ancho + nc;
+                if (ws.closedStamp[next] == stamp) {
+                    continue;
+                }
+                double newG = currentG + 1.0;
+                if (ws.gStamp[next] != stamp || newG < ws.g[next]) {
+                    ws.g[next] = newG;
+                    ws.gStamp[next] = stamp;
+                    double h = goalCell < 0 ? 0.0
+                            : Math.abs(r0 + nr - goalCell / cols) + Math.abs(c0 + nc - goalCell % cols);
+                    ws.push(next, newG + h, newG, current);
+                }
+            }
+        }
+        return goalCell < 0 ? 0.0 : Double.POSITIVE_INFINITY;
+    }
+
+    // Tras un Dijkstra completo del cluster, coste hasta la celda (POSITIVE_INFINITY si no se alcanzó)
+    private double costeAlcanzado(SearchWorkspace ws, int cluster, int cell) {
+        int r0 = (cluster / clusterCols) * tam, c0 = (cluster % clusterCols) * tam;
+        int ancho = Math.min(tam, cols - c0);
+        int local = (cell / cols - r0) * ancho + (cell % cols - c0);
+        return ws.closedStamp[local] == ws.stamp ? ws.g[local] : Double.POSITIVE_INFINITY;
+    }
+
+    // Añade a path (sin repetir el primer punto) el tramo interno del cluster entre dos celdas
+    private void refinarTramo(SearchWorkspace ws, int cluster, int desde, int hasta, List<Point> path) {
+        buscarEnCluster(ws, cluster, desde, hasta);
+        int r0 = (cluster / clusterCols) * tam, c0 = (cluster % clusterCols) * tam;
+        int ancho = Math.min(tam, cols - c0);
+        List<Point> tramo = new ArrayList<>();
+        int local = (hasta / cols - r0) * ancho + (hasta % cols - c0);
+        for (; ws.parent[local] != -1; local = ws.parent[local]) {
+            tramo.add(new Point(r0 + local / ancho, c0 + local % ancho));
+        }
+        Collections.reverse(tramo);
+        path.addAll(tramo);
+    }
+
+    /**
+     * Busca en el grafo abstracto ampliado con el inicio (nodo numNodos) y la meta (numNodos + 1).
+     * Devuelve el coste y, si camino no es null, deja en él la secuencia de nodos abstractos.
+     */
+    private double buscarAbstracto(int startCell, int goalCell, List<Integer> camino) {
+        SearchWorkspace ws = SearchWorkspace.get();
+        int cs = clusterDe(startCell), cg = clusterDe(goalCell);
+
+        // Conexión del inicio y la meta con las entradas de sus clusters
+        int[] entradasInicio = nodosPorCluster[cs];
+        double[] costeInicio = new double[entradasInicio.length];
+        buscarEnCluster(ws, cs, startCell, -1);
+        for (int i = 0; i < entradasInicio.length; i++) {
+            costeInicio[i] = costeAlcanzado(ws, cs, nodoCelda[entradasInicio[i]]);
+        }
+        double directo = cs == cg ? costeAlcanzado(ws, cs, goalCell) : Double.POSITIVE_INFINITY;
+        int[] entradasMeta = nodosPorCluster[cg];
+        double[] costeMeta = new double[entradasMeta.length];
+        buscarEnCluster(ws, cg, goalCell, -1);
+        for (int i = 0; i < entradasMeta.length; i++) {
+            costeMeta[i] = costeAlcanzado(ws, cg, nodoCelda[entradasMeta[i]]);
+        }
+
+        int inicio = numNodos, meta = numNodos + 1;
+        ws.prepare(numNodos + 2);
+        int stamp = ws.stamp;
+        ws.g[inicio] = 0.0;
+        ws.gStamp[inicio] = stamp;
+        ws.push(inicio, manhattan(startCell, goalCell), 0.0, -1);
+        double resultado = Double.POSITIVE_INFINITY;
+        while (ws.heapSize > 0) {
+            ws.poll();
+            int current = ws.topCell;
+            if (ws.closedStamp[current] == stamp) {
+                continue;
+            }
+            ws.closedStamp[current] = stamp;
+            ws.parent[current] = ws.topParent;
+            double currentG = ws.topG;
+            if (current == meta) {
+                resultado = currentG;
+                break;
+            }
+            if (current == inicio) {
+                for (int i = 0; i < entradasInicio.length; i++) {
+                    relajar(ws, entradasInicio[i], currentG + costeInicio[i], current, goalCell);
+                }
+                relajar(ws, meta, currentG + directo, current, goalCell);
+                continue;
+            }
+            int cluster = nodoCluster[current];
+            int[] vecinos = nodosPorCluster[cluster];
+            double[] costes = costeIntra[cluster];
+            int base = nodoPosicion[current] * vecinos.length;
+            for (int j = 0; j < vecinos.length; j++) {
+                relajar(ws, vecinos[j], currentG + costes[base + j], current, goalCell);
+            }
+            for (int e = interInicio[current]; e < interInicio[current + 1]; e++) {
+                relajar(ws, interDestino[e], currentG + 1.0, current, goalCell);
+            }
+            if (cluster == cg) {
+                relajar(ws, meta, currentG + costeMeta[nodoPosicion[current]], current, goalCell);
+            }
+        }
+        if (camino != null && resultado != Double.POSITIVE_INFINITY) {
+            for (int n = meta; n != -1; n = ws.parent[n]) {
+                camino.add(n);
+            }
+            Collections.reverse(camino);
+        }
+        return resultado;
+    }
+
+    private void relajar(SearchWorkspace ws, int nodo, double newG, int padre, int goalCell) {
+        if (newG == Double.POSITIVE_INFINITY || ws.closedStamp[nodo] == ws.stamp) {
+            return;
+        }
+        if (ws.gStamp[nodo] != ws.stamp || newG < ws.g[nodo]) {
+            ws.g[nodo] = newG;
+            ws.gStamp[nodo] = ws.stamp;
+            double h = nodo >= numNodos ? 0.0 : manhattan(nodoCelda[nodo], goalCell);
+            ws.push(nodo, newG + h, newG, padre);
+        }
+    }
+
+    /**
+     * Calcula la ruta: búsqueda abstracta y refinamiento local de cada tramo.
+     * Devuelve null si no hay camino.
+     */
+    @Override
+    public List<Point> calcularRuta(int startR, int startC, int goalR, int goalC) {
+        if (!isWalkable(goalR, goalC)) {
+            return null;
+        }
+        int startCell = startR * cols + startC, goalCell = goalR * cols + goalC;
+        List<Integer> camino = new ArrayList<>();
+        if (buscarAbstracto(startCell, goalCell, camino) == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        SearchWorkspace ws = SearchWorkspace.get();
+        List<Point> path = new ArrayList<>();
+        path.add(new Point(startR, startC));
+        int previa = startCell;
+        for (int i = 1; i < camino.size(); i++) {
+            int nodo = camino.get(i);
+            int cell = nodo == numNodos + 1 ? goalCell : nodoCelda[nodo];
+            if (cell == previa) {
+                continue;
+            }
+            if (clusterDe(cell) != clusterDe(previa)) {
+                // Arista entre clusters: celdas adyacentes a ambos lados del borde
+                path.add(new Point(cell / cols, cell % cols));
+            } else {
+                refinarTramo(ws, clusterDe(cell), previa, cell, path);
+            }
+            previa = cell;
+        }
+        return path;
+    }
+
+    // Coste del camino usando solo el grafo abstracto (sin refinar la ruta)
+    @Override
+    public double calcularDistancia(int startR, int startC, int goalR, int goalC) {
+        if (!isWalkable(goalR, goalC)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return buscarAbstracto(startR * cols + startC, goalR * cols + goalC, null);
+    }
+
+    public int getNumNodos() {
+        return numNodos;
+    }
+}
@@ -0,0 +1,160 @@
+package Algoritmo;
+
+import java.util.Locale;
+
+/**
+ * Implementación por defecto de MetricasListener: acumula los tiempos de cada fase en
+ * histogramas logarítmicos (8 cubetas por potencia de 2, error relativo < 12,5 %) y
+ * suma los contadores. Registrar una generación no reserva memoria ni escribe nada;
+ * solo si se indica un intervalo se imprime el resumen por consola cada tantas generaciones.
+ */
+public class HistogramaMetricas implements MetricasListener {
+    private static final FaseGeneracion[] FASES = FaseGeneracion.values();
+    private static final int SUBCUBETAS = 8;
+    private static final int CUBETAS = SUBCUBETAS * 62;
+
+    private final int intervaloConsola;
+    private final long[][] cubetas = new long[FASES.length][CUBETAS];
+    private final long[] totalNanos = new long[FASES.length];
+    private final long[] maxNanos = new long[FASES.length];
+    private long generaciones;
+    private long evaluaciones;
+    private long actualizacionesDelta;
+    private long aciertosCacheFitness;
+    private long busquedasRuta;
+    private long aciertosCacheRutas;
+    private long fallosCacheRutas;
+
+    // Sin salida por consola
+    public HistogramaMetricas() {
+        this(0);
+    }
+
+    // Imprime el resumen cada intervaloConsola generaciones (0 = nunca)
+    public HistogramaMetricas(int intervaloConsola) {
+        this.intervaloConsola = intervaloConsola;
+    }
+
+    @Override
+    public void generacionCompletada(MetricasGeneracion m) {
+        synchronized (this) {
+            for (FaseGeneracion fase : FASES) {
+                long n = m.getNanos(fase);
+                int f = fase.ordinal();
+                cubetas[f][cubeta(n)]++;
+                totalNanos[f] += n;
+                maxNanos[f] = Math.max(maxNanos[f], n);
+            }
+            generaciones++;
+            evaluaciones += m.getEvaluaciones();
+            actualizacionesDelta += m.getActualizacionesDelta();
+            aciertosCacheFitness += m.getAciertosCacheFitness();
+            busquedasRuta += m.getBusquedasRuta();
+            aciertosCacheRutas += m.getAciertosCacheRutas();
+            fallosCacheRutas += m.getFallosCacheRutas();
+        }
+        if (intervaloConsola > 0 && (m.getGeneracion() + 1) % intervaloConsola == 0) {
+            System.out.println(resumen());
+        }
+    }
+
+    // Cubeta de un valor: los 3 bits siguientes al más alto eligen la subcubeta
+    private static int cubeta(long n) {
+        if (n < SUBCUBETAS) {
+            return (int) Math.max(0, n);
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(n);
+        int sub = (int) (n >>> (exp - 3)) & (SUBCUBETAS - 1);
+        return SUBCUBETAS * (exp - 2) + sub;
+    }
+
+    // Valor mínimo de la cubeta
+    private static long limiteInferior(int cubeta) {
+        if (cubeta < SUBCUBETAS) {
+            return cubeta;
+        }
+        int exp = cubeta / SUBCUBETAS + 2;
+        return (long) (SUBCUBETAS + cubeta % SUBCUBETAS) << (exp - 3);
+    }
+
+    /**
+     * Percentil p (0..100) del tiempo por generación de la fase, en nanosegundos.
+     * Es el límite inferior de la cubeta en la que cae el percentil.
+     */
+    public synchronized long percentil(FaseGeneracion fase, double p) {
+        if (generaciones == 0) {
+            return 0;
+        }
+        long objetivo = Math.max(1, (long) Math.ceil(p / 100 * generaciones));
+        long acumulado = 0;
+        long[] h = cubetas[fase.ordinal()];
+        for (int i = 0; i < CUBETAS; i++) {
+            acumulado += h[i];
+            if (acumulado >= objetivo) {
+                return limiteInferior(i);
+            }
+        }
+        return maxNanos[fase.ordinal()];
+    }
+
+    public synchronized double getMediaNanos(FaseGeneracion fase) {
+        return generaciones == 0 ? 0 : (double) totalNanos[fase.ordinal()] / generaciones;
+    }
+
+    public synchronized long getTotalNanos(FaseGeneracion fase) {
+        return totalNanos[fase.ordinal()];
+    }
+
+    public synchronized long getMaxNanos(FaseGeneracion fase) {
+        return maxNanos[fase.ordinal()];
+    }
+
+    public synchronized long getGeneraciones() {
+        return generaciones;
+    }
+
+    public synchronized long getEvaluaciones() {
+        return evaluaciones;
+    }
+
+    public synchronized long getActualizacionesDelta() {
+        return actualizacionesDelta;
+    }
+
+    public synchronized long getAciertosCacheFitness() {
+        return aciertosCacheFitness;
+    }
+
+    public synchronized long getBusquedasRuta() {
+        return busquedasRuta;
+    }
+
+    public synchronized long getAciertosCacheRutas() {
+        return aciertosCacheRutas;
+    }
+
+    public synchronized long getFallosCacheRutas() {
+        return fallosCacheRutas;
+    }
+
+    // Tabla con el tiempo de cada fase (media, p50, p99 y máximo en µs, % del total) y los contadores
+    public synchronized String resumen() {
+        long total = 0;
+        for (long t : totalNanos) {
+            total += t;
+        }
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "Métricas de %d generaciones%n", generaciones));
+        sb.append(String.format(Locale.ROOT, "%-15s %10s %10s %10s %10s %7s%n", "Fase (µs)", "media", "p50", "p99", "máx", "%"));
+        for (FaseGeneracion fase : FASES) {
+            int f = fase.ordinal();
+            sb.append(String.format(Locale.ROOT, "%-15s %10.1f %10.1f %10.1f %10.1f %6.1f%%%n", fase,
+                    getMediaNanos(fase) / 1e3, percentil(fase, 50) / 1e3, percentil(fase, 99) / 1e3,
+                    maxNanos[f] / 1e3, total == 0 ? 0 : 100.0 * totalNanos[f] / total));
+        }
+        sb.append(String.format(Locale.ROOT,
+                "Evaluaciones: %d (+%d por delta, %d de caché) | Búsquedas de ruta: %d | Caché de rutas: %d aciertos, %d fallos",
+                evaluaciones, actualizacionesDelta, aciertosCacheFitness, busquedasRuta, aciertosCacheRutas, fallosCacheRutas));
+        return sb.toString();
+    }
+}
@@ -2,33 +2,57 @@ package Algoritmo;
 
 import java.util.Arrays;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
 import Model.CasaMap;
-import Model.Room;
-import Algoritmo.AStar;
-import java.awt.Point;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 
 public class IndividuoRuta {
     private int[] ruta; // Permutación de 20 números (IDs de habitaciones)
     private double fitness; // Valor de fitness
-    private static Random rand = new Random();
     
+    // Hash Zobrist de la ruta: XOR de una clave aleatoria por (posición, habitación).
+    // Las claves son para rutas de 20 habitaciones; con otra longitud getHash falla
+    private static final long[] ZOBRIST = crearClavesZobrist(20);
+    private long hash;
+    private boolean hashValido; // false si la ruta ha cambiado desde el último cálculo
+    
+    // Claves para rutas de n habitaciones: la de (posición i, habitación h) es claves[i * (n + 1) + h]
+    static long[] crearClavesZobrist(int n) {
+        // Semilla fija: el hash de una ruta es el mismo en todas las ejecuciones
+        Random r = new Random(0x9E3779B97F4A7C15L);
+        long[] claves = new long[n * (n + 1)];
+        for (int i = 0; i < claves.length; i++) {
+            claves[i] = r.nextLong();
+        }
+        return claves;
+    }
+    
+    // Ruta aleatoria con el generador del hilo actual
     public IndividuoRuta() {
+        this(ThreadLocalRandom.current());
+    }
+    
+    // Ruta aleatoria: la mezcla sale de rng, así que con la misma semilla sale la misma ruta
+    public IndividuoRuta(RandomGenerator rng) {
         ruta = new int[20];
         for (int i = 0; i < 20; i++) {
             ruta[i] = i + 1;
         }
         // Mezclamos la permutación aleatoriamente
         for (int i = 0; i < 20; i++) {
-            int j = rand.nextInt(20);
+            int j = rng.nextInt(20);
             int temp = ruta[i];
             ruta[i] = ruta[j];
             ruta[j] = temp;
         }
     }
     
+    // Individuo con una ruta y un fitness ya conocidos (sin mezclar una permutación aleatoria)
+    IndividuoRuta(int[] ruta, double fitness) {
+        this.ruta = ruta;
+        this.fitness = fitness;
+    }
+    
     public int[] getRuta() {
         return ruta;
     }
@@ -37,95 +61,112 @@ public class IndividuoRuta {
         return fitness;
     }
     
-    // Calcula fitness usando solo la distancia total.
+    // Calcula fitness usando solo la distancia total (consultando la matriz precalculada del mapa).
     private void calcularFitnessDistance(CasaMap map) {
-        double totalDist = 0;
-        List<Room> rooms = map.getRooms();
-        AStar astar = new AStar(map.getGrid());
-        // Trayecto: Base -> primera habitación
-        Room firstRoom = rooms.get(ruta[0] - 1);
-        totalDist += astar.calcularDistancia(map.getBaseRow(), map.getBaseCol(), firstRoom.getRow(), firstRoom.getCol());
+        fitness = fitnessDistancia(map.getDistanceMatrix(), ruta, 0, ruta.length);
+    }
+    
+    // Calcula fitness que considera distancia total y penaliza curvas (suavidad).
+    private void calcularFitnessDistanceSmooth(CasaMap map) {
+        fitness = fitnessSuavidad(map.getDistanceMatrix(), ruta, 0, ruta.length);
+    }
+    
+    // --- Fitness sobre una ruta guardada en rutas[off .. off + n) (también para PoblacionPlana) ---
+    
+    static double fitness(DistanceMatrix distancias, int fitnessType, int[] rutas, int off, int n) {
+        return fitnessType == 2 ? fitnessSuavidad(distancias, rutas, off, n) : fitnessDistancia(distancias, rutas, off, n);
+    }
+    
+    static double fitnessDistancia(DistanceMatrix distancias, int[] rutas, int off, int n) {
+        // Trayecto: Base (índice 0) -> primera habitación
+        double totalDist = distancias.get(0, rutas[off]);
         // Trayecto: entre habitaciones consecutivas
-        for (int i = 0; i < ruta.length - 1; i++) {
-            Room r1 = rooms.get(ruta[i] - 1);
-            Room r2 = rooms.get(ruta[i+1] - 1);
-            totalDist += astar.calcularDistancia(r1.getRow(), r1.getCol(), r2.getRow(), r2.getCol());
+        for (int i = off; i < off + n - 1; i++) {
+            totalDist += distancias.get(rutas[i], rutas[i + 1]);
         }
         // Trayecto: última habitación -> Base
-        Room lastRoom = rooms.get(ruta[ruta.length - 1] - 1);
-        totalDist += astar.calcularDistancia(lastRoom.getRow(), lastRoom.getCol(), map.getBaseRow(), map.getBaseCol());
-        
-        fitness = totalDist;
+        totalDist += distancias.get(rutas[off + n - 1], 0);
+        return totalDist;
     }
     
-    // Calcula fitness que considera distancia total y penaliza curvas (suavidad)
-    private void calcularFitnessDistanceSmooth(CasaMap map) {
+    // Usa las tablas precalculadas por tramo: giros internos de cada tramo más el giro
+    // en cada unión, sin reconstruir la ruta completa.
+    static double fitnessSuavidad(DistanceMatrix distancias, int[] rutas, int off, int n) {
+        TablaSuavidad suavidad = distancias.getTablaSuavidad();
         double totalDist = 0;
-        List<Room> rooms = map.getRooms();
-        AStar astar = new AStar(map.getGrid());
-        List<Point> fullPath = new ArrayList<>();
-        
-        // Trayecto: Base -> primera habitación
-        Room firstRoom = rooms.get(ruta[0] - 1);
-        List<Point> segment = astar.calcularRuta(map.getBaseRow(), map.getBaseCol(), firstRoom.getRow(), firstRoom.getCol());
-        if(segment != null) {
-            fullPath.addAll(segment);
-            totalDist += segment.size();
-        } else {
-            totalDist += 1e6;
-        }
+        double turningPenalty = 0;
+        boolean rutaVacia = true; // Aún no se ha añadido ningún tramo a la ruta
+        int anterior = -1;        // Origen del tramo anterior, si era alcanzable
         
-        // Trayectos entre habitaciones
-        for (int i = 0; i < ruta.length - 1; i++) {
-            Room r1 = rooms.get(ruta[i] - 1);
-            Room r2 = rooms.get(ruta[i+1] - 1);
-            segment = astar.calcularRuta(r1.getRow(), r1.getCol(), r2.getRow(), r2.getCol());
-            if(segment != null && !segment.isEmpty()){
-                if(!fullPath.isEmpty() && fullPath.get(fullPath.size()-1).equals(segment.get(0))){
-                    segment.remove(0);
-                }
-                fullPath.addAll(segment);
-                totalDist += segment.size();
-            } else {
+        // Tramos: Base -> primera habitación, entre habitaciones, última habitación -> Base
+        for (int k = 0; k <= n; k++) {
+            int desde = (k == 0) ? 0 : rutas[off + k - 1];
+            int hasta = (k == n) ? 0 : rutas[off + k];
+            if (!suavidad.esAlcanzable(desde, hasta)) {
                 totalDist += 1e6;
+                anterior = -1;
+                continue;
             }
-        }
-        
-        // Trayecto: última habitación -> Base
-        Room lastRoom = rooms.get(ruta[ruta.length - 1] - 1);
-        segment = astar.calcularRuta(lastRoom.getRow(), lastRoom.getCol(), map.getBaseRow(), map.getBaseCol());
-        if(segment != null && !segment.isEmpty()){
-            if(!fullPath.isEmpty() && fullPath.get(fullPath.size()-1).equals(segment.get(0))){
-                segment.remove(0);
-            }
-            fullPath.addAll(segment);
-            totalDist += segment.size();
-        } else {
-            totalDist += 1e6;
-        }
-        
-        // Calcular penalización por cambios de dirección (suavidad)
-        double turningPenalty = 0;
-        for (int i = 1; i < fullPath.size() - 1; i++) {
-            Point p0 = fullPath.get(i - 1);
-            Point p1 = fullPath.get(i);
-            Point p2 = fullPath.get(i + 1);
-            double vx1 = p1.x - p0.x;
-            double vy1 = p1.y - p0.y;
-            double vx2 = p2.x - p1.x;
-            double vy2 = p2.y - p1.y;
-            double norm1 = Math.sqrt(vx1 * vx1 + vy1 * vy1);
-            double norm2 = Math.sqrt(vx2 * vx2 + vy2 * vy2);
-            if(norm1 > 0 && norm2 > 0) {
-                double cosTheta = (vx1 * vx2 + vy1 * vy2) / (norm1 * norm2);
-                cosTheta = Math.max(-1, Math.min(1, cosTheta));
-                double angle = Math.acos(cosTheta);
-                turningPenalty += (1 - Math.cos(angle));
+            // Se cuentan las celdas del tramo sin repetir la de la unión (la primera cuenta entera)
+            totalDist += distancias.get(desde, hasta) + (rutaVacia ? 1 : 0);
+            turningPenalty += suavidad.giros(desde, hasta);
+            if (anterior != -1) {
+                turningPenalty += suavidad.union(anterior, desde, hasta);
             }
+            rutaVacia = false;
+            anterior = desde;
         }
         // Peso para la penalización de curvas
         double weightTurn = 10.0;
-        fitness = totalDist + weightTurn * turningPenalty;
+        return totalDist + weightTurn * turningPenalty;
+    }
+    
+    // Hash de la ruta; se recalcula en O(n) solo si la ruta se modificó sin actualizarlo
+    public long getHash() {
+        if (!hashValido) {
+            hash = hashZobrist(ZOBRIST, ruta, 0, ruta.length);
+            hashValido = true;
+        }
+        return hash;
+    }
+    
+    // Hash Zobrist de la ruta guardada en rutas[off .. off + n) con las claves de crearClavesZobrist(n)
+    static long hashZobrist(long[] claves, int[] rutas, int off, int n) {
+        if (claves.length != n * (n + 1)) {
+            throw new IllegalArgumentException("Las claves Zobrist no son para rutas de " + n + " habitaciones");
+        }
+        long h = 0;
+        for (int i = 0; i < n; i++) {
+            h ^= claves[i * (n + 1) + rutas[off + i]];
+        }
+        return h;
+    }
+    
+    // Debe llamarse tras modificar la ruta directamente a través de getRuta()
+    void invalidarHash() {
+        hashValido = false;
+    }
+    
+    // Intercambia dos genes actualizando el hash en O(1)
+    void intercambiarGenes(int i, int j) {
+        int a = ruta[i], b = ruta[j];
+        if (hashValido) {
+            // Si el hash es válido, getHash ya comprobó que las claves son para esta longitud
+            int paso = ruta.length + 1;
+            hash ^= ZOBRIST[i * paso + a] ^ ZOBRIST[j * paso + b] ^ ZOBRIST[i * paso + b] ^ ZOBRIST[j * paso + a];
+        }
+        ruta[i] = b;
+        ruta[j] = a;
+    }
+    
+    // Fitness obtenido de la caché de fitness
+    void asignarFitness(double fitness) {
+        this.fitness = fitness;
+    }
+    
+    // Actualiza el fitness con la variación calculada por una mutación con delta
+    void ajustarFitness(double delta) {
+        fitness += delta;
     }
     
     // Método público: fitnessType 1 = Distancia Total, 2 = Distancia + Suavidad
@@ -146,13 +187,10 @@ public class IndividuoRuta {
     
     // Método copy() para clonar el individuo (usado en elitismo)
     public IndividuoRuta copy() {
-        IndividuoRuta copia = new IndividuoRuta();
-        int[] original = this.getRuta();
-        int[] newRoute = new int[original.length];
-        System.arraycopy(original, 0, newRoute, 0, original.length);
-        // Copiamos el arreglo al nuevo individuo
-        System.arraycopy(newRoute, 0, copia.getRuta(), 0, original.length);
-        copia.fitness = this.fitness;
+        // Copiamos el arreglo al nuevo individuo (sin mezclar una ruta que se iba a sobrescribir)
+        IndividuoRuta copia = new IndividuoRuta(ruta.clone(), this.fitness);
+        copia.hash = this.hash;
+        copia.hashValido = this.hashValido;
         return copia;
     }
 }
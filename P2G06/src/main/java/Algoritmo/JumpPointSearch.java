@@ -0,0 +1,261 @@
+package Algoritmo;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import Model.WalkableBitGrid;
+
+/**
+ * Jump Point Search sobre cuadrículas de coste uniforme (paredes '■').
+ * En lugar de expandir cada celda vecina, se "salta" en línea recta (y en diagonal
+ * si se permiten) hasta encontrar un punto de salto: la meta o una celda con vecinos
+ * forzados por un obstáculo. Solo esos puntos entran en la cola de prioridad, por lo
+ * que en zonas abiertas se evita la expansión de casi todas las celdas libres.
+ * Devuelve caminos de la misma longitud óptima que AStarEngine con la misma conectividad
+ * (en 8 direcciones se permite cortar esquinas, igual que en AStar).
+ */
+public class JumpPointSearch implements BuscadorRutas {
+    private static final double DIAG_COST = Math.sqrt(2);
+
+    // Mismo orden de direcciones que AStarEngine: primero cardinales, después diagonales
+    private static final int[] DR = { -1, 1, 0, 0, -1, -1, 1, 1 };
+    private static final int[] DC = { 0, 0, -1, 1, -1, 1, -1, 1 };
+
+    private final WalkableBitGrid transitables;
+    private final int rows, cols;
+    private final boolean allowDiagonal;
+
+    public JumpPointSearch(char[][] grid, boolean allowDiagonal) {
+        this(new WalkableBitGrid(grid), allowDiagonal);
+    }
+
+    public JumpPointSearch(WalkableBitGrid transitables, boolean allowDiagonal) {
+        this.transitables = transitables;
+        this.rows = transitables.getRows();
+        this.cols = transitables.getCols();
+        this.allowDiagonal = allowDiagonal;
+    }
+
+    // Verifica si la celda es transitable; los saltos nunca pasan del borde, que es obstáculo
+    private boolean isWalkable(int r, int c) {
+        return transitables.libre(r, c);
+    }
+
+    // Distancia exacta entre dos celdas alineadas (recta o diagonal); también sirve de heurística
+    private double distancia(int r1, int c1, int r2, int c2) {
+        int dr = Math.abs(r1 - r2);
+        int dc = Math.abs(c1 - c2);
+        if (!allowDiagonal) {
+            return dr + dc;
+        } else {
+            double minD = Math.min(dr, dc);
+            double maxD = Math.max(dr, dc);
+            return minD * DIAG_COST + (maxD - minD);
+        }
+    }
+
+    /**
+     * Salto en 8 direcciones desde (r, c) avanzando en (dr, dc).
+     * Devuelve el índice del punto de salto o -1 si se llega a un obstáculo o al borde.
+     */
+    private int saltar8(int r, int c, int dr, int dc, int goalR, int goalC) {
+        while (true) {
+            if (!isWalkable(r, c)) {
+                return -1;
+            }
+            if (r == goalR && c == goalC) {
+                return r * cols + c;
+            }
+            if (dr != 0 && dc != 0) {
+                // Diagonal: vecinos forzados y, si alguna recta desde aquí encuentra algo, es punto de salto
+                if ((isWalkable(r + dr, c - dc) && !isWalkable(r, c - dc))
+                        || (isWalkable(r - dr, c + dc) && !isWalkable(r - dr, c))) {
+                    return r * cols + c;
+                }
+                if (saltar8(r, c + dc, 0, dc, goalR, goalC) != -1
+                        || saltar8(r + dr, c, dr, 0, goalR, goalC) != -1) {
+                    return r * cols + c;
+                }
+            } else if (dc != 0) {
+                // Horizontal
+                if ((isWalkable(r + 1, c + dc) && !isWalkable(r + 1, c))
+                        || (isWalkable(r - 1, c + dc) && !isWalkable(r - 1, c))) {
+                    return r * cols + c;
+                }
+            } else {
+                // Vertical
+                if ((isWalkable(r + dr, c + 1) && !isWalkable(r, c + 1))
+                        || (isWalkable(r + dr, c - 1) && !isWalkable(r, c - 1))) {
+                    return r * cols + c;
+                }
+            }
+            r += dr;
+            c += dc;
+        }
+    }
+
+    /**
+     * Salto en 4 direcciones: los movimientos verticales comprueban en cada celda
+     * los saltos horizontales (hacen el papel de la diagonal en la versión de 8 direcciones).
+     */
+    private int saltar4(int r, int c, int dr, int dc, int goalR, int goalC) {
+        while (true) {
+            if (!isWalkable(r, c)) {
+                return -1;
+            }
+            if (r == goalR && c == goalC) {
+                return r * cols + c;
+            }
+            if (dc != 0) {
+                // Horizontal: se abre un hueco arriba o abajo que antes estaba bloqueado
+                if ((isWalkable(r - 1, c) && !isWalkable(r - 1, c - dc))
+                        || (isWalkable(r + 1, c) && !isWalkable(r + 1, c - dc))) {
+                    return r * cols + c;
+                }
+            } else {
+                // Vertical
+                if ((isWalkable(r, c - 1) && !isWalkable(r - dr, c - 1))
+                        || (isWalkable(r, c + 1) && !isWalkable(r - dr, c + 1))) {
+                    return r * cols + c;
+                }
+                if (saltar4(r, c + 1, 0, 1, goalR, goalC) != -1
+                        || saltar4(r, c - 1, 0, -1, goalR, goalC) != -1) {
+                    return r * cols + c;
+                }
+            }
+            r += dr;
+            c += dc;
+        }
+    }
+
+    // Indica si la dirección d debe explorarse desde (r, c) al llegar en (dr, dc) (poda de JPS)
+    private boolean esVecinoPodado(int r, int c, int dr, int dc, int d) {
+        int ndr = DR[d];
+        int ndc = DC[d];
+        if (!allowDiagonal) {
+            if (dc != 0) {
+                // Llegada horizontal: seguir recto o girar en vertical
+                return ndc == dc || ndc == 0;
+            }
+            // Llegada vertical: seguir recto o girar en horizontal
+            return ndr == dr || ndr == 0;
+        }
+        if (dr != 0 && dc != 0) {
+            if ((ndr == dr && ndc == 0) || (ndr == 0 && ndc == dc) || (ndr == dr && ndc == dc)) {
+                return true;
+            }
+            // Vecinos forzados por obstáculos detrás de la diagonal
+            return (ndr == dr && ndc == -dc && !isWalkable(r, c - dc))
+                    || (ndr == -dr && ndc == dc && !isWalkable(r - dr, c));
+        } else if (dc != 0) {
+            if (ndr == 0 && ndc == dc) {
+                return true;
+            }
+            return (ndc == dc && ndr == 1 && !isWalkable(r + 1, c))
+                    || (ndc == dc && ndr == -1 && !isWalkable(r - 1, c));
+        } else {
+            if (ndc == 0 && ndr == dr) {
+                return true;
+            }
+            return (ndr == dr && ndc == 1 && !isWalkable(r, c + 1))
+                    || (ndr == dr && ndc == -1 && !isWalkable(r, c - 1));
+        }
+    }
+
+    /**
+     * Ejecuta la búsqueda sobre los puntos de salto y deja los padres en el espacio de trabajo.
+     * Devuelve el coste de la meta o POSITIVE_INFINITY si no es alcanzable.
+     */
+    private double buscar(SearchWorkspace ws, int startR, int startC, int goalR, int goalC) {
+        ws.prepare(rows * cols);
+        int stamp = ws.stamp;
+        int goal = goalR * cols + goalC;
+        int start = startR * cols + startC;
+
+        ws.g[start] = 0.0;
+        ws.gStamp[start] = stamp;
+        ws.push(start, distancia(startR, startC, goalR, goalC), 0.0, -1);
+
+        int numDirs = allowDiagonal ? 8 : 4;
+        while (ws.heapSize > 0) {
+            ws.poll();
+            int current = ws.topCell;
+            if (ws.closedStamp[current] == stamp) {
+                continue;
+            }
+            ws.closedStamp[current] = stamp;
+            int parentCell = ws.topParent;
+            ws.parent[current] = parentCell;
+            double currentG = ws.topG;
+            if (current == goal) {
+                return currentG;
+            }
+
+            int r = current / cols;
+            int c = current - r * cols;
+            // Dirección de llegada normalizada (0, 0 en el nodo inicial: se exploran todas)
+            int dr = 0, dc = 0;
+            if (parentCell != -1) {
+                int pr = parentCell / cols;
+                dr = Integer.signum(r - pr);
+                dc = Integer.signum(c - (parentCell - pr * cols));
+            }
+            for (int d = 0; d < numDirs; d++) {
+                if (parentCell != -1 && !esVecinoPodado(r, c, dr, dc, d)) {
+                    continue;
+                }
+                int jump = allowDiagonal
+                        ? saltar8(r + DR[d], c + DC[d], DR[d], DC[d], goalR, goalC)
+                        : saltar4(r + DR[d], c + DC[d], DR[d], DC[d], goalR, goalC);
+                if (jump == -1 || ws.closedStamp[jump] == stamp) {
+                    continue;
+                }
+                int jr = jump / cols;
+                int jc = jump - jr * cols;
+                double newG = currentG + distancia(r, c, jr, jc);
+                if (ws.gStamp[jump] != stamp || newG < ws.g[jump]) {
+                    ws.g[jump] = newG;
+                    ws.gStamp[jump] = stamp;
+                    ws.push(jump, newG + distancia(jr, jc, goalR, goalC), newG, current);
+                }
+            }
+        }
+        return Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Calcula la ruta más corta y la devuelve celda a celda, interpolando los tramos
+     * rectos o diagonales entre puntos de salto consecutivos. Devuelve null si no hay camino.
+     */
+    @Override
+    public List<Point> calcularRuta(int startR, int startC, int goalR, int goalC) {
+        SearchWorkspace ws = SearchWorkspace.get();
+        if (buscar(ws, startR, startC, goalR, goalC) == Double.POSITIVE_INFINITY) {
+            return null;
+        }
+        List<Point> path = new ArrayList<>();
+        int cell = goalR * cols + goalC;
+        path.add(new Point(goalR, goalC));
+        while (ws.parent[cell] != -1) {
+            int r = cell / cols, c = cell % cols;
+            int parentCell = ws.parent[cell];
+            int pr = parentCell / cols, pc = parentCell % cols;
+            int dr = Integer.signum(pr - r);
+            int dc = Integer.signum(pc - c);
+            while (r != pr || c != pc) {
+                r += dr;
+                c += dc;
+                path.add(new Point(r, c));
+            }
+            cell = parentCell;
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    @Override
+    public double calcularDistancia(int startR, int startC, int goalR, int goalC) {
+        return buscar(SearchWorkspace.get(), startR, startC, goalR, goalC);
+    }
+}
@@ -0,0 +1,92 @@
+package Algoritmo;
+
+/**
+ * Tiempos por fase y contadores de una generación de AlgorimoGeneticoRuta.
+ * Los contadores de rutas son los del caché de rutas del mapa durante la generación
+ * (búsquedas reales con A*, JPS o HPA y aciertos/fallos); el fitness usa la matriz de
+ * distancias, así que en una ejecución normal suelen ser 0.
+ */
+public final class MetricasGeneracion {
+    private static final FaseGeneracion[] FASES = FaseGeneracion.values();
+
+    private int generacion;
+    private final long[] nanos = new long[FASES.length];
+    long evaluaciones;          // Fitness calculados desde cero
+    long actualizacionesDelta;  // Fitness actualizados en O(1) con el delta de la mutación o la búsqueda local
+    long aciertosCacheFitness;
+    long busquedasRuta;
+    long aciertosCacheRutas;
+    long fallosCacheRutas;
+    double mejor;
+    double media;
+
+    // Pone a cero la medición para una nueva generación
+    void reiniciar(int generacion) {
+        this.generacion = generacion;
+        for (int i = 0; i < nanos.length; i++) {
+            nanos[i] = 0;
+        }
+        evaluaciones = 0;
+        actualizacionesDelta = 0;
+        aciertosCacheFitness = 0;
+        busquedasRuta = 0;
+        aciertosCacheRutas = 0;
+        fallosCacheRutas = 0;
+    }
+
+    // Suma a la fase el tiempo transcurrido desde la marca y devuelve la marca actual
+    long sumar(FaseGeneracion fase, long desde) {
+        long ahora = System.nanoTime();
+        nanos[fase.ordinal()] += ahora - desde;
+        return ahora;
+    }
+
+    public int getGeneracion() {
+        return generacion;
+    }
+
+    public long getNanos(FaseGeneracion fase) {
+        return nanos[fase.ordinal()];
+    }
+
+    // Tiempo de la generación completa (suma de todas las fases)
+    public long getNanosTotal() {
+        long total = 0;
+        for (long n : nanos) {
+            total += n;
+        }
+        return total;
+    }
+
+    public long getEvaluaciones() {
+        return evaluaciones;
+    }
+
+    public long getActualizacionesDelta() {
+        return actualizacionesDelta;
+    }
+
+    public long getAciertosCacheFitness() {
+        return aciertosCacheFitness;
+    }
+
+    public long getBusquedasRuta() {
+        return busquedasRuta;
+    }
+
+    public long getAciertosCacheRutas() {
+        return aciertosCacheRutas;
+    }
+
+    public long getFallosCacheRutas() {
+        return fallosCacheRutas;
+    }
+
+    public double getMejor() {
+        return mejor;
+    }
+
+    public double getMedia() {
+        return media;
+    }
+}
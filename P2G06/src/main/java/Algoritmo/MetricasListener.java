@@ -0,0 +1,13 @@
+package Algoritmo;
+
+/**
+ * Recibe las métricas de cada generación de AlgorimoGeneticoRuta (ver setMetricasListener).
+ * Se llama desde el hilo que ejecuta evolucionar, al final de cada generación.
+ */
+public interface MetricasListener {
+    /**
+     * Métricas de la generación que acaba de terminar. El objeto se reutiliza en la
+     * siguiente generación: hay que copiar los valores que se quieran conservar.
+     */
+    void generacionCompletada(MetricasGeneracion metricas);
+}
@@ -0,0 +1,29 @@
+package Algoritmo;
+
+import Model.CasaMap;
+
+/**
+ * Algoritmo de búsqueda de caminos que usa AStar para un mapa.
+ */
+public enum ModoBusqueda {
+    ASTAR,  // A* clásico (AStarEngine)
+    JPS,    // Jump Point Search: mismas longitudes óptimas, expande muchas menos celdas en zonas abiertas
+    HPA;    // HPA*: grafo jerárquico precalculado por mapa, para cuadrículas muy grandes (casi óptimo)
+
+    // Devuelve el motor de búsqueda correspondiente para el mapa
+    public BuscadorRutas crearBuscador(CasaMap map, boolean allowDiagonal) {
+        switch (this) {
+            case JPS:
+                return new JumpPointSearch(map.getTransitables(), allowDiagonal);
+            case HPA:
+                // El grafo jerárquico solo admite 4 direcciones; con diagonales se usa A*
+                if (!allowDiagonal) {
+                    return map.getJerarquia();
+                }
+                return new AStarEngine(map.getTransitables(), allowDiagonal);
+            case ASTAR:
+            default:
+                return new AStarEngine(map.getTransitables(), allowDiagonal);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package Algoritmo;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Forma de evaluar el fitness de los hijos de cada generación en AlgorimoGeneticoRuta.
+ */
+public enum ModoEvaluacion {
+    SECUENCIAL,      // En el hilo que llama a evolucionar (comportamiento original)
+    FORK_JOIN,       // ForkJoinPool con el número de hilos indicado
+    HILOS_VIRTUALES; // Un hilo virtual por bloque de hijos
+
+    // Crea el ejecutor para el modo; null en modo secuencial
+    ExecutorService crearEjecutor(int numHilos) {
+        switch (this) {
+            case FORK_JOIN:
+                return new ForkJoinPool(numHilos);
+            case HILOS_VIRTUALES:
+                return Executors.newVirtualThreadPerTaskExecutor();
+            case SECUENCIAL:
+            default:
+                return null;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package Algoritmo;
+
+/**
+ * Motivo por el que terminó AlgorimoGeneticoRuta.evolucionar.
+ */
+public enum MotivoParada {
+    GENERACIONES,  // Se completaron todas las generaciones pedidas
+    ESTANCAMIENTO, // El mejor global no mejoró en las últimas k generaciones
+    DIVERSIDAD,    // La diversidad de la población bajó del umbral
+    EVALUACIONES,  // Se alcanzó el número máximo de evaluaciones
+    TIEMPO,        // Se agotó el presupuesto de tiempo
+    CANCELADO;     // Se llamó a cancelar()
+}
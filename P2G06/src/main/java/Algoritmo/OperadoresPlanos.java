@@ -0,0 +1,408 @@
+package Algoritmo;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Versiones de los operadores genéticos que trabajan directamente sobre rutas guardadas
+ * en arrays con desplazamiento (la ruta ocupa r[off .. off + n)), como las filas de
+ * PoblacionPlana. Cada instancia tiene sus propios arrays de trabajo, así que no reserva
+ * memoria por llamada; no debe compartirse entre hilos (get() da una por hilo).
+ *
+ * Los cruces usan posiciones inversas, marcas por sello y una tabla de adyacencia de
+ * tamaño fijo, de modo que cuestan O(n) en lugar de los recorridos con contains/indexOf.
+ * Dan los mismos hijos que la implementación original de OperadoresGeneticos (que ahora
+ * delega aquí) para los mismos números aleatorios. Los números salen del generador que
+ * se pasa en cada llamada, no de uno compartido.
+ */
+final class OperadoresPlanos {
+    private static final ThreadLocal<OperadoresPlanos> POR_HILO = new ThreadLocal<>();
+
+    // Operadores del hilo actual para rutas de n genes
+    static OperadoresPlanos get(int n) {
+        OperadoresPlanos op = POR_HILO.get();
+        if (op == null || op.n != n) {
+            op = new OperadoresPlanos(n);
+            POR_HILO.set(op);
+        }
+        return op;
+    }
+
+    private final int n;
+    private final int[] posicion;     // Posición de cada gen en el padre que rellena
+    private final int[] colocado;     // Sello del hijo en el que ya se colocó cada gen
+    private int sello;
+    private final boolean[] elegida;  // Posiciones heredadas del primer padre (CO)
+    private final int[] cuenta;       // Apariciones de cada gen (reparación)
+    // Tabla de adyacencia de ERX: hasta 4 vecinos por gen, en orden de inserción
+    private final int[] vecinos;
+    private final boolean[] activo;
+    private final int[] numVecinos;
+    private final int[] grado;        // Vecinos que siguen activos
+    private RandomGenerator rng;      // Generador de la llamada en curso
+
+    OperadoresPlanos(int n) {
+        this.n = n;
+        posicion = new int[n + 1];
+        colocado = new int[n + 1];
+        elegida = new boolean[n];
+        cuenta = new int[n + 1];
+        vecinos = new int[4 * (n + 1)];
+        activo = new boolean[4 * (n + 1)];
+        numVecinos = new int[n + 1];
+        grado = new int[n + 1];
+    }
+
+    // --- Cruce ---
+
+    // Escribe los dos hijos de las filas p1 y p2 en las filas h1 y h2 del mismo array
+    void cruzar(int[] rutas, int p1, int p2, int h1, int h2, int crossoverMethod, RandomGenerator rng) {
+        cruzar(rutas, p1, rutas, p2, rutas, h1, rutas, h2, crossoverMethod, rng);
+    }
+
+    // Mismos índices de método que OperadoresGeneticos.crossover
+    void cruzar(int[] r1, int p1, int[] r2, int p2, int[] rh1, int h1, int[] rh2, int h2, int crossoverMethod,
+            RandomGenerator rng) {
+        this.rng = rng;
+        switch (crossoverMethod) {
+            case 0:
+                cruzarPMX(r1, p1, r2, p2, rh1, h1, rh2, h2);
+                break;
+            case 1:
+                cruzarOX(r1, p1, r2, p2, rh1, h1, rh2, h2);
+                break;
+            case 2:
+                // CX tal y como estaba: se recorren todos los ciclos desde el primer padre,
+                // así que cada hijo resulta ser una copia de su padre
+                System.arraycopy(r1, p1, rh1, h1, n);
+                System.arraycopy(r2, p2, rh2, h2, n);
+                break;
+            case 3:
+            case 6:
+                cruzarCustom(r1, p1, r2, p2, rh1, h1, rh2, h2);
+                break;
+            case 4:
+                co(r1, p1, r2, p2, rh1, h1);
+                co(r2, p2, r1, p1, rh2, h2);
+                break;
+            case 5:
+                erx(r1, p1, r2, p2, rh1, h1);
+                erx(r2, p2, r1, p1, rh2, h2);
+                break;
+            default:
+                cruzarPMX(r1, p1, r2, p2, rh1, h1, rh2, h2);
+                break;
+        }
+    }
+
+    private void cruzarPMX(int[] r1, int p1, int[] r2, int p2, int[] rh1, int h1, int[] rh2, int h2) {
+        int cp1 = rng.nextInt(n);
+        int cp2 = rng.nextInt(n);
+        if (cp1 > cp2) { int temp = cp1; cp1 = cp2; cp2 = temp; }
+        pmx(r1, p1, r2, p2, rh1, h1, cp1, cp2);
+        pmx(r2, p2, r1, p1, rh2, h2, cp1, cp2);
+    }
+
+    // Hijo con el segmento [cp1, cp2] de a; los genes desplazados de b se recolocan siguiendo el mapeo
+    private void pmx(int[] ra, int a, int[] rb, int b, int[] rh, int h, int cp1, int cp2) {
+        sello++;
+        for (int i = 0; i < n; i++) {
+            rh[h + i] = -1;
+            posicion[rb[b + i]] = i;
+        }
+        for (int i = cp1; i <= cp2; i++) {
+            rh[h + i] = ra[a + i];
+            colocado[ra[a + i]] = sello;
+        }
+        for (int i = cp1; i <= cp2; i++) {
+            int gene = rb[b + i];
+            if (colocado[gene] != sello) {
+                int pos = i;
+                while (true) {
+                    pos = posicion[ra[a + pos]];
+                    if (rh[h + pos] == -1) {
+                        rh[h + pos] = gene;
+                        colocado[gene] = sello;
+                        break;
+                    }
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (rh[h + i] == -1) {
+                rh[h + i] = rb[b + i];
+            }
+        }
+    }
+
+    private void cruzarOX(int[] r1, int p1, int[] r2, int p2, int[] rh1, int h1, int[] rh2, int h2) {
+        int cp1 = rng.nextInt(n);
+        int cp2 = rng.nextInt(n);
+        if (cp1 > cp2) { int temp = cp1; cp1 = cp2; cp2 = temp; }
+        ox(r1, p1, r2, p2, rh1, h1, cp1, cp2);
+        ox(r2, p2, r1, p1, rh2, h2, cp1, cp2);
+    }
+
+    // Hijo con el segmento [cp1, cp2] de a; el resto se completa tras cp2 con el orden de b
+    private void ox(int[] ra, int a, int[] rb, int b, int[] rh, int h, int cp1, int cp2) {
+        sello++;
+        for (int i = cp1; i <= cp2; i++) {
+            rh[h + i] = ra[a + i];
+            colocado[ra[a + i]] = sello;
+        }
+        int pendientes = n - (cp2 - cp1 + 1);
+        int currentIndex = (cp2 + 1) % n;
+        int parentIndex = (cp2 + 1) % n;
+        while (pendientes > 0) {
+            int gene = rb[b + parentIndex];
+            if (colocado[gene] != sello) {
+                rh[h + currentIndex] = gene;
+                colocado[gene] = sello;
+                currentIndex = (currentIndex + 1) % n;
+                pendientes--;
+            }
+            parentIndex = (parentIndex + 1) % n;
+        }
+    }
+
+    // Custom: primer y tercer tercio de un padre, el intermedio del otro, y reparación
+    private void cruzarCustom(int[] r1, int p1, int[] r2, int p2, int[] rh1, int h1, int[] rh2, int h2) {
+        int seg1 = n / 3;
+        int seg2 = 2 * n / 3;
+        System.arraycopy(r1, p1, rh1, h1, seg1);
+        System.arraycopy(r2, p2 + seg1, rh1, h1 + seg1, seg2 - seg1);
+        System.arraycopy(r1, p1 + seg2, rh1, h1 + seg2, n - seg2);
+        System.arraycopy(r2, p2, rh2, h2, seg1);
+        System.arraycopy(r1, p1 + seg1, rh2, h2 + seg1, seg2 - seg1);
+        System.arraycopy(r2, p2 + seg2, rh2, h2 + seg2, n - seg2);
+        reparar(rh1, h1);
+        reparar(rh2, h2);
+    }
+
+    /**
+     * Repara la permutación: cada gen que falta (en orden creciente) sustituye a la primera
+     * posición vacía (-1) o con un gen repetido. Como los contadores de los genes presentes
+     * solo bajan, una posición descartada no vuelve a ser candidata y basta un único recorrido.
+     */
+    private void reparar(int[] rh, int h) {
+        for (int g = 1; g <= n; g++) {
+            cuenta[g] = 0;
+        }
+        for (int i = 0; i < n; i++) {
+            int v = rh[h + i];
+            if (v >= 1 && v <= n) {
+                cuenta[v]++;
+            }
+        }
+        int j = 0;
+        for (int g = 1; g <= n; g++) {
+            if (cuenta[g] != 0) {
+                continue;
+            }
+            while (j < n && !sustituible(rh[h + j])) {
+                j++;
+            }
+            if (j < n) {
+                int v = rh[h + j];
+                if (v >= 1 && v <= n) {
+                    cuenta[v]--;
+                }
+                rh[h + j] = g;
+                cuenta[g] = 1;
+            }
+        }
+    }
+
+    private boolean sustituible(int v) {
+        return v == -1 || (v >= 1 && v <= n && cuenta[v] > 1);
+    }
+
+    // CO (OBX): posiciones al azar heredadas de a; los huecos se rellenan con el orden de b
+    private void co(int[] ra, int a, int[] rb, int b, int[] rh, int h) {
+        boolean any = false;
+        for (int i = 0; i < n; i++) {
+            elegida[i] = rng.nextBoolean();
+            any |= elegida[i];
+        }
+        if (!any) { elegida[rng.nextInt(n)] = true; }
+
+        sello++;
+        for (int i = 0; i < n; i++) {
+            if (elegida[i]) {
+                rh[h + i] = ra[a + i];
+                colocado[ra[a + i]] = sello;
+            } else {
+                rh[h + i] = -1;
+            }
+        }
+        int index = 0;
+        for (int i = 0; i < n; i++) {
+            if (rh[h + i] == -1) {
+                while (index < n && colocado[rb[b + index]] == sello) {
+                    index++;
+                }
+                if (index < n) {
+                    rh[h + i] = rb[b + index];
+                    colocado[rb[b + index]] = sello;
+                    index++;
+                }
+            }
+        }
+    }
+
+    /**
+     * ERX: tabla de vecinos de ambos padres (cíclicos) y, desde un gen al azar de a, se
+     * avanza al vecino no usado con menos vecinos activos. Al usar un gen solo se actualizan
+     * las listas de sus vecinos (la adyacencia es simétrica). En caso de empate gana el
+     * primero en el orden en que un HashSet<Integer> recorre sus elementos (cubeta v & 15 y,
+     * dentro de ella, orden de inserción), que es lo que hacía la versión con HashMap/HashSet.
+     */
+    private void erx(int[] ra, int a, int[] rb, int b, int[] rh, int h) {
+        for (int i = 0; i < n; i++) {
+            numVecinos[ra[a + i]] = 0;
+        }
+        agregarVecinos(ra, a);
+        agregarVecinos(rb, b);
+        for (int g = 1; g <= n; g++) {
+            grado[g] = numVecinos[g];
+            for (int k = 0; k < numVecinos[g]; k++) {
+                activo[g * 4 + k] = true;
+            }
+        }
+
+        sello++;
+        int currentGene = ra[a + rng.nextInt(n)];
+        rh[h] = currentGene;
+        colocado[currentGene] = sello;
+        for (int i = 1; i < n; i++) {
+            // Quitar currentGene de las listas de sus vecinos
+            for (int k = 0; k < numVecinos[currentGene]; k++) {
+                int v = vecinos[currentGene * 4 + k];
+                for (int m = 0; m < numVecinos[v]; m++) {
+                    if (activo[v * 4 + m] && vecinos[v * 4 + m] == currentGene) {
+                        activo[v * 4 + m] = false;
+                        grado[v]--;
+                        break;
+                    }
+                }
+            }
+            int nextGene = -1;
+            int minCount = Integer.MAX_VALUE;
+            int minOrden = Integer.MAX_VALUE;
+            for (int k = 0; k < numVecinos[currentGene]; k++) {
+                int candidate = vecinos[currentGene * 4 + k];
+                if (!activo[currentGene * 4 + k] || colocado[candidate] == sello) {
+                    continue;
+                }
+                int count = grado[candidate];
+                int orden = ((candidate ^ (candidate >>> 16)) & 15) * 4 + k;
+                if (count < minCount || (count == minCount && orden < minOrden)) {
+                    minCount = count;
+                    minOrden = orden;
+                    nextGene = candidate;
+                }
+            }
+            if (nextGene == -1) {
+                // Sin vecinos disponibles: el k-ésimo gen no usado en orden creciente, al azar
+                int k = rng.nextInt(n - i);
+                for (int gene = 1; gene <= n; gene++) {
+                    if (colocado[gene] != sello && k-- == 0) {
+                        nextGene = gene;
+                        break;
+                    }
+                }
+            }
+            rh[h + i] = nextGene;
+            colocado[nextGene] = sello;
+            currentGene = nextGene;
+        }
+    }
+
+    // Añade a la tabla los vecinos cíclicos (izquierdo y derecho) de cada gen de la ruta
+    private void agregarVecinos(int[] r, int off) {
+        for (int i = 0; i < n; i++) {
+            int gene = r[off + i];
+            agregarVecino(gene, r[off + (i - 1 + n) % n]);
+            agregarVecino(gene, r[off + (i + 1) % n]);
+        }
+    }
+
+    private void agregarVecino(int gene, int vecino) {
+        int base = gene * 4;
+        for (int k = 0; k < numVecinos[gene]; k++) {
+            if (vecinos[base + k] == vecino) {
+                return;
+            }
+        }
+        vecinos[base + numVecinos[gene]++] = vecino;
+    }
+
+    // --- Mutación ---
+
+    void mutar(int[] rutas, int off, int mutationMethod, RandomGenerator rng) {
+        this.rng = rng;
+        switch (mutationMethod) {
+            case 0:
+                mutarInsercion(rutas, off);
+                break;
+            case 2:
+                mutarInversion(rutas, off);
+                break;
+            case 4:
+                mutarCustom(rutas, off);
+                break;
+            case 5:
+                mutarScramble(rutas, off);
+                break;
+            case 1:
+            case 3: // Heurística: variante de swap
+            default:
+                mutarSwap(rutas, off);
+                break;
+        }
+    }
+
+    private void mutarInsercion(int[] rutas, int off) {
+        int pos = rng.nextInt(n);
+        int newPos = rng.nextInt(n);
+        OperadoresGeneticos.insertar(rutas, off, n, pos, newPos);
+    }
+
+    private void mutarSwap(int[] rutas, int off) {
+        int pos1 = rng.nextInt(n);
+        int pos2 = rng.nextInt(n);
+        while (pos1 == pos2) {
+            pos2 = rng.nextInt(n);
+        }
+        int temp = rutas[off + pos1];
+        rutas[off + pos1] = rutas[off + pos2];
+        rutas[off + pos2] = temp;
+    }
+
+    private void mutarInversion(int[] rutas, int off) {
+        int pos1 = rng.nextInt(n);
+        int pos2 = rng.nextInt(n);
+        if (pos1 > pos2) { int temp = pos1; pos1 = pos2; pos2 = temp; }
+        OperadoresGeneticos.invertir(rutas, off + pos1, off + pos2);
+    }
+
+    private void mutarCustom(int[] rutas, int off) {
+        int mid = n / 2;
+        for (int i = 0; i < mid; i++) {
+            int temp = rutas[off + i];
+            rutas[off + i] = rutas[off + i + mid];
+            rutas[off + i + mid] = temp;
+        }
+    }
+
+    private void mutarScramble(int[] rutas, int off) {
+        int pos1 = rng.nextInt(n);
+        int pos2 = rng.nextInt(n);
+        if (pos1 > pos2) { int temp = pos1; pos1 = pos2; pos2 = temp; }
+        for (int i = pos1; i < pos2; i++) {
+            int j = pos1 + rng.nextInt(pos2 - pos1 + 1);
+            int temp = rutas[off + i];
+            rutas[off + i] = rutas[off + j];
+            rutas[off + j] = temp;
+        }
+    }
+}
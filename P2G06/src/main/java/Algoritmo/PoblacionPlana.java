@@ -0,0 +1,83 @@
+package Algoritmo;
+
+/**
+ * Población en estructura de arrays: todas las rutas en un único int[] plano (la fila i
+ * ocupa rutas[i * n .. (i + 1) * n)) y los fitness en un double[]. Hay dos juegos de
+ * buffers: la generación actual y la siguiente, que se intercambian al final de cada
+ * generación, de modo que en régimen estacionario no se reserva memoria.
+ *
+ * Las filas [0, tam) son la población; las filas [tam, filas) del buffer actual se usan
+ * para los hijos de la generación en curso.
+ */
+public final class PoblacionPlana {
+    private final int tam;   // Individuos de la población
+    private final int n;     // Genes por ruta
+    private final int filas; // Filas de cada buffer (población + hijos)
+    private int[] rutas, rutasSig;
+    private double[] fitness, fitnessSig;
+
+    PoblacionPlana(int tam, int n, int filas) {
+        this.tam = tam;
+        this.n = n;
+        this.filas = filas;
+        rutas = new int[filas * n];
+        rutasSig = new int[filas * n];
+        fitness = new double[filas];
+        fitnessSig = new double[filas];
+    }
+
+    public int getTam() {
+        return tam;
+    }
+
+    public int getNumGenes() {
+        return n;
+    }
+
+    public int getFilas() {
+        return filas;
+    }
+
+    // Buffers de la generación actual
+    public int[] getRutas() {
+        return rutas;
+    }
+
+    public double[] getFitness() {
+        return fitness;
+    }
+
+    // Posición de la fila en getRutas()
+    public int offset(int fila) {
+        return fila * n;
+    }
+
+    // Copia la fila desde en la fila hasta, con su fitness, dentro del buffer actual
+    void copiarFila(int desde, int hasta) {
+        System.arraycopy(rutas, desde * n, rutas, hasta * n, n);
+        fitness[hasta] = fitness[desde];
+    }
+
+    // Copia la fila del buffer actual a la fila destino de la siguiente generación
+    void conservar(int fila, int destino) {
+        System.arraycopy(rutas, fila * n, rutasSig, destino * n, n);
+        fitnessSig[destino] = fitness[fila];
+    }
+
+    // La siguiente generación pasa a ser la actual
+    void intercambiarBuffers() {
+        int[] r = rutas;
+        rutas = rutasSig;
+        rutasSig = r;
+        double[] f = fitness;
+        fitness = fitnessSig;
+        fitnessSig = f;
+    }
+
+    // Copia de la fila como IndividuoRuta (reserva memoria: solo para consultar resultados)
+    public IndividuoRuta individuo(int fila) {
+        int[] ruta = new int[n];
+        System.arraycopy(rutas, fila * n, ruta, 0, n);
+        return new IndividuoRuta(ruta, fitness[fila]);
+    }
+}
@@ -0,0 +1,50 @@
+package Algoritmo;
+
+/**
+ * Instantánea inmutable de una generación: estadísticas y copia de la mejor ruta.
+ * Se puede pasar a otro hilo sin sincronización.
+ */
+public final class ProgresoGeneracion {
+    private final int generacion;
+    private final int generaciones;
+    private final double mejor;
+    private final double media;
+    private final double mejorAbsoluto;
+    private final int[] rutaMejor;
+
+    ProgresoGeneracion(int generacion, int generaciones, double mejor, double media, double mejorAbsoluto, int[] rutaMejor) {
+        this.generacion = generacion;
+        this.generaciones = generaciones;
+        this.mejor = mejor;
+        this.media = media;
+        this.mejorAbsoluto = mejorAbsoluto;
+        this.rutaMejor = rutaMejor;
+    }
+
+    // Índice de la generación (0 .. generaciones - 1)
+    public int getGeneracion() {
+        return generacion;
+    }
+
+    // Número total de generaciones de la ejecución
+    public int getGeneraciones() {
+        return generaciones;
+    }
+
+    public double getMejor() {
+        return mejor;
+    }
+
+    public double getMedia() {
+        return media;
+    }
+
+    public double getMejorAbsoluto() {
+        return mejorAbsoluto;
+    }
+
+    // Ruta del mejor individuo de la generación (copia propia)
+    public int[] getRutaMejor() {
+        return rutaMejor.clone();
+    }
+}
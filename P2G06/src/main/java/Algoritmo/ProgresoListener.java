@@ -0,0 +1,11 @@
+package Algoritmo;
+
+/**
+ * Recibe el estado de un motor (AlgorimoGeneticoRuta, AlgoritmoGeneticoPlano o
+ * AlgoritmoGeneticoIslas) al final de cada generación (ver setProgresoListener).
+ * Se llama desde el hilo que ejecuta evolucionar: una interfaz gráfica debe pasar los
+ * datos a su propio hilo (p. ej. con SwingWorker.publish).
+ */
+public interface ProgresoListener {
+    void generacionTerminada(ProgresoGeneracion progreso);
+}
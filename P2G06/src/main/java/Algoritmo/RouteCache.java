@@ -0,0 +1,163 @@
+package Algoritmo;
+
+import java.awt.Point;
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caché de rutas propio de cada mapa.
+ * Las claves son long empaquetados a partir de los índices planos de celda
+ * (fila * cols + col) y la búsqueda es simétrica: la ruta a->b se guarda una sola
+ * vez en sentido canónico (celda menor -> celda mayor) y b->a se sirve recorriéndola
+ * al revés. El tamaño está acotado con política LRU y las rutas devueltas son
+ * listas inmutables respaldadas por un int[] compacto.
+ */
+public class RouteCache {
+    public static final int CAPACIDAD_POR_DEFECTO = 10000;
+
+    // Marca para pares sin camino (el caché no puede guardar null como "calculado")
+    private static final int[] SIN_CAMINO = new int[0];
+
+    private final int cols;
+    private final Map<Long, int[]> rutas;
+    private long hits;
+    private long misses;
+    private long busquedas; // Búsquedas hechas con el motor (rutas y distancias que no estaban)
+
+    public RouteCache(int cols) {
+        this(cols, CAPACIDAD_POR_DEFECTO);
+    }
+
+    public RouteCache(int cols, int capacidad) {
+        this.cols = cols;
+        // LinkedHashMap en orden de acceso: se descarta la ruta usada hace más tiempo
+        this.rutas = new LinkedHashMap<Long, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, int[]> eldest) {
+                return size() > capacidad;
+            }
+        };
+    }
+
+    /**
+     * Devuelve la ruta entre las dos celdas, calculándola con el buscador indicado si no
+     * está en caché. Devuelve null si no existe camino.
+     */
+    public List<Point> obtenerRuta(int startR, int startC, int goalR, int goalC, BuscadorRutas buscador) {
+        int start = startR * cols + startC;
+        int goal = goalR * cols + goalC;
+        boolean invertida = start > goal;
+        int desde = invertida ? goal : start;
+        int hasta = invertida ? start : goal;
+        long key = clave(start, goal);
+
+        int[] celdas;
+        synchronized (this) {
+            celdas = rutas.get(key);
+            if (celdas != null) {
+                hits++;
+            } else {
+                misses++;
+            }
+        }
+        if (celdas == null) {
+            // La búsqueda se hace fuera del bloqueo para no serializar cálculos en paralelo
+            List<Point> path = buscador.calcularRuta(desde / cols, desde % cols, hasta / cols, hasta % cols);
+            celdas = compactar(path);
+            synchronized (this) {
+                rutas.put(key, celdas);
+                busquedas++;
+            }
+        }
+        return celdas == SIN_CAMINO ? null : new RutaCompacta(celdas, cols, invertida);
+    }
+
+    /**
+     * Distancia (número de pasos) según la ruta guardada, sin calcular nada si no está:
+     * NaN si el par no está en caché, POSITIVE_INFINITY si se sabe que no hay camino.
+     */
+    public synchronized double distanciaEnCache(int startR, int startC, int goalR, int goalC) {
+        int start = startR * cols + startC;
+        int goal = goalR * cols + goalC;
+        int[] celdas = rutas.get(clave(start, goal));
+        if (celdas == null) {
+            misses++;
+            return Double.NaN;
+        }
+        hits++;
+        return celdas == SIN_CAMINO ? Double.POSITIVE_INFINITY : celdas.length - 1;
+    }
+
+    // Clave simétrica: par (celda menor, celda mayor) empaquetado en un long
+    private static long clave(int a, int b) {
+        int desde = Math.min(a, b);
+        int hasta = Math.max(a, b);
+        return ((long) desde << 32) | (hasta & 0xFFFFFFFFL);
+    }
+
+    private int[] compactar(List<Point> path) {
+        if (path == null) {
+            return SIN_CAMINO;
+        }
+        int[] celdas = new int[path.size()];
+        for (int i = 0; i < celdas.length; i++) {
+            Point p = path.get(i);
+            celdas[i] = p.x * cols + p.y;
+        }
+        return celdas;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    // Anota una búsqueda hecha fuera del caché (p. ej. una distancia que no estaba guardada)
+    public synchronized void registrarBusqueda() {
+        busquedas++;
+    }
+
+    public synchronized long getBusquedas() {
+        return busquedas;
+    }
+
+    public synchronized int size() {
+        return rutas.size();
+    }
+
+    public synchronized void clear() {
+        rutas.clear();
+        hits = 0;
+        misses = 0;
+        busquedas = 0;
+    }
+
+    // Vista inmutable de una ruta compacta; cada get() crea un Point nuevo (row, col)
+    private static final class RutaCompacta extends AbstractList<Point> {
+        private final int[] celdas;
+        private final int cols;
+        private final boolean invertida;
+
+        RutaCompacta(int[] celdas, int cols, boolean invertida) {
+            this.celdas = celdas;
+            this.cols = cols;
+            this.invertida = invertida;
+        }
+
+        @Override
+        public Point get(int index) {
+            int cell = invertida ? celdas[celdas.length - 1 - index] : celdas[index];
+            return new Point(cell / cols, cell % cols);
+        }
+
+        @Override
+        public int size() {
+            return celdas.length;
+        }
+    }
+}
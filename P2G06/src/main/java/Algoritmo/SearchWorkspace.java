@@ -0,0 +1,116 @@
+package Algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * Espacio de trabajo por hilo compartido por los motores de búsqueda (AStarEngine, JumpPointSearch):
+ * arrays con marca de generación y montículo binario primitivo. Crece según el mayor mapa consultado.
+ */
+final class SearchWorkspace {
+    private static final ThreadLocal<SearchWorkspace> WORKSPACE = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    static SearchWorkspace get() {
+        return WORKSPACE.get();
+    }
+
+    int[] gStamp = new int[0];
+    int[] closedStamp = new int[0];
+    double[] g = new double[0];
+    int[] parent = new int[0];
+    int stamp = 0;
+
+    // Montículo en arrays paralelos: cada entrada guarda celda, f, g y padre (como Node)
+    int[] heapCell = new int[16];
+    double[] heapF = new double[16];
+    double[] heapG = new double[16];
+    int[] heapParent = new int[16];
+    int heapSize;
+
+    // Última entrada extraída por poll()
+    int topCell;
+    double topG;
+    int topParent;
+
+    // Invalida la búsqueda anterior incrementando la generación (O(1) salvo al crecer)
+    void prepare(int cells) {
+        if (gStamp.length < cells) {
+            gStamp = new int[cells];
+            closedStamp = new int[cells];
+            g = new double[cells];
+            parent = new int[cells];
+            stamp = 0;
+        }
+        stamp++;
+        if (stamp == Integer.MAX_VALUE) {
+            // Desbordamiento del contador: única vez en que hay que limpiar las marcas
+            Arrays.fill(gStamp, 0);
+            Arrays.fill(closedStamp, 0);
+            stamp = 1;
+        }
+        heapSize = 0;
+    }
+
+    // Inserción con el mismo siftUp que PriorityQueue
+    void push(int cell, double f, double gValue, int parentCell) {
+        if (heapSize == heapCell.length) {
+            int capacity = heapSize * 2;
+            heapCell = Arrays.copyOf(heapCell, capacity);
+            heapF = Arrays.copyOf(heapF, capacity);
+            heapG = Arrays.copyOf(heapG, capacity);
+            heapParent = Arrays.copyOf(heapParent, capacity);
+        }
+        int k = heapSize++;
+        while (k > 0) {
+            int p = (k - 1) >>> 1;
+            if (f >= heapF[p]) {
+                break;
+            }
+            move(p, k);
+            k = p;
+        }
+        set(k, cell, f, gValue, parentCell);
+    }
+
+    // Extracción con el mismo siftDown que PriorityQueue; el resultado queda en top*
+    void poll() {
+        topCell = heapCell[0];
+        topG = heapG[0];
+        topParent = heapParent[0];
+        int n = --heapSize;
+        if (n > 0) {
+            int cell = heapCell[n];
+            double f = heapF[n];
+            double gValue = heapG[n];
+            int parentCell = heapParent[n];
+            int k = 0;
+            int half = n >>> 1;
+            while (k < half) {
+                int child = (k << 1) + 1;
+                int right = child + 1;
+                if (right < n && heapF[child] > heapF[right]) {
+                    child = right;
+                }
+                if (f <= heapF[child]) {
+                    break;
+                }
+                move(child, k);
+                k = child;
+            }
+            set(k, cell, f, gValue, parentCell);
+        }
+    }
+
+    private void move(int from, int to) {
+        heapCell[to] = heapCell[from];
+        heapF[to] = heapF[from];
+        heapG[to] = heapG[from];
+        heapParent[to] = heapParent[from];
+    }
+
+    private void set(int k, int cell, double f, double gValue, int parentCell) {
+        heapCell[k] = cell;
+        heapF[k] = f;
+        heapG[k] = gValue;
+        heapParent[k] = parentCell;
+    }
+}
@@ -0,0 +1,231 @@
+package Algoritmo;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+/**
+ * Selección de padres para una generación. Las tablas de cada método se construyen una
+ * vez por generación en preparar() y después cada padre cuesta O(log N) u O(1), en lugar
+ * de recorrer toda la población por cada elección.
+ *
+ * Métodos (mismos índices que el combo de la interfaz):
+ * 0 Ruleta, 1 Torneo, 2 Estocástico (muestreo estocástico universal), 3 Restos,
+ * 4 Truncamiento, 5 Ranking. Cualquier otro valor usa torneo.
+ * Al minimizar, el peso de cada individuo en los métodos proporcionales es 1 / fitness.
+ * Los números aleatorios salen del generador del algoritmo que la usa.
+ */
+final class SeleccionPadres {
+    private static final int TAM_TORNEO = 3;
+    private static final double FRACCION_TRUNCAMIENTO = 0.5;
+    private static final double PRESION_RANKING = 1.5; // Entre 1 (uniforme) y 2
+
+    private final int selectionMethod;
+    private final RandomGenerator rng;
+    private double[] fitness;
+    private int tam;
+
+    private double[] acumulado = new double[0]; // Suma prefija de pesos (ruleta, ranking, restos)
+    private double[] ordenados = new double[0]; // Fitness ordenados (ranking)
+    private int[] lote = new int[0];            // Padres ya elegidos (estocástico, restos, truncamiento)
+    private int numLote;
+    private int siguienteLote;
+
+    SeleccionPadres(int selectionMethod, RandomGenerator rng) {
+        this.selectionMethod = selectionMethod;
+        this.rng = rng;
+    }
+
+    /**
+     * Construye las tablas del método para la población fitness[0 .. tam).
+     * numPadres es el número de padres que se van a pedir en la generación.
+     */
+    void preparar(double[] fitness, int tam, int numPadres) {
+        this.fitness = fitness;
+        this.tam = tam;
+        switch (selectionMethod) {
+            case 0:
+                prepararRuleta();
+                break;
+            case 2:
+                prepararEstocastico(numPadres);
+                break;
+            case 3:
+                prepararRestos(numPadres);
+                break;
+            case 4:
+                prepararTruncamiento();
+                break;
+            case 5:
+                prepararRanking();
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Índice del siguiente padre
+    int siguiente() {
+        switch (selectionMethod) {
+            case 0:
+            case 5:
+                return girarRuleta();
+            case 2:
+            case 3:
+                return siguienteLote < numLote ? lote[siguienteLote++] : girarRuleta();
+            case 4:
+                return lote[rng.nextInt(numLote)];
+            case 1:
+            default:
+                return torneo();
+        }
+    }
+
+    private int torneo() {
+        int best = -1;
+        for (int i = 0; i < TAM_TORNEO; i++) {
+            int candidate = rng.nextInt(tam);
+            if (best == -1 || fitness[candidate] < fitness[best])
+                best = candidate;
+        }
+        return best;
+    }
+
+    // --- Métodos proporcionales al fitness ---
+
+    private void prepararRuleta() {
+        reservar(tam, 0);
+        double acum = 0;
+        for (int i = 0; i < tam; i++) {
+            acum += 1.0 / fitness[i]; // para minimizar
+            acumulado[i] = acum;
+        }
+    }
+
+    // Primer índice cuyo acumulado alcanza un valor aleatorio de [0, total): búsqueda binaria
+    private int girarRuleta() {
+        return buscar(rng.nextDouble() * acumulado[tam - 1]);
+    }
+
+    private int buscar(double valor) {
+        int lo = 0, hi = tam - 1;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (acumulado[mid] >= valor) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        return lo;
+    }
+
+    // Muestreo estocástico universal: numPadres punteros equiespaciados en una sola pasada
+    private void prepararEstocastico(int numPadres) {
+        prepararRuleta();
+        reservar(tam, numPadres);
+        double paso = acumulado[tam - 1] / numPadres;
+        double puntero = rng.nextDouble() * paso;
+        int i = 0;
+        for (int k = 0; k < numPadres; k++) {
+            while (i < tam - 1 && acumulado[i] < puntero) {
+                i++;
+            }
+            lote[k] = i;
+            puntero += paso;
+        }
+        iniciarLote(numPadres);
+    }
+
+    // Restos: cada individuo recibe la parte entera de sus copias esperadas y los huecos
+    // que faltan se sortean con una ruleta sobre las partes fraccionarias
+    private void prepararRestos(int numPadres) {
+        reservar(tam, numPadres);
+        double total = 0;
+        for (int i = 0; i < tam; i++) {
+            total += 1.0 / fitness[i];
+        }
+        int k = 0;
+        double acum = 0;
+        for (int i = 0; i < tam; i++) {
+            double esperado = numPadres * (1.0 / fitness[i]) / total;
+            int copias = Math.min((int) esperado, numPadres - k);
+            for (int c = 0; c < copias; c++) {
+                lote[k++] = i;
+            }
+            acum += esperado - (int) esperado;
+            acumulado[i] = acum;
+        }
+        while (k < numPadres) {
+            lote[k++] = acum > 0 ? buscar(rng.nextDouble() * acum) : rng.nextInt(tam);
+        }
+        iniciarLote(numPadres);
+    }
+
+    // --- Métodos por posición ---
+
+    // Truncamiento: los padres se eligen al azar entre la mejor fracción de la población
+    private void prepararTruncamiento() {
+        reservar(0, tam);
+        for (int i = 0; i < tam; i++) {
+            lote[i] = i;
+        }
+        numLote = Math.max(1, (int) (tam * FRACCION_TRUNCAMIENTO));
+        SeleccionParcial.menores(lote, tam, numLote, fitness);
+    }
+
+    // Ranking lineal: el peso depende solo de la posición (empates con la misma posición)
+    private void prepararRanking() {
+        reservar(tam, 0);
+        if (ordenados.length < tam) {
+            ordenados = new double[tam];
+        }
+        System.arraycopy(fitness, 0, ordenados, 0, tam);
+        Arrays.sort(ordenados, 0, tam);
+        double acum = 0;
+        for (int i = 0; i < tam; i++) {
+            // Posición 0 = peor, tam - 1 = mejor
+            int rango = tam - 1 - primeraPosicion(fitness[i]);
+            double peso = tam == 1 ? 1
+                    : (2 - PRESION_RANKING) / tam + 2.0 * rango * (PRESION_RANKING - 1) / (tam * (tam - 1.0));
+            acum += peso;
+            acumulado[i] = acum;
+        }
+    }
+
+    // Primera posición de valor en ordenados[0 .. tam)
+    private int primeraPosicion(double valor) {
+        int lo = 0, hi = tam;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ordenados[mid] < valor) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // --- Auxiliares ---
+
+    private void reservar(int tamAcumulado, int tamLote) {
+        if (acumulado.length < tamAcumulado) {
+            acumulado = new double[tamAcumulado];
+        }
+        if (lote.length < tamLote) {
+            lote = new int[tamLote];
+        }
+    }
+
+    // Mezcla el lote para no emparejar siempre padres consecutivos en la población
+    private void iniciarLote(int numPadres) {
+        for (int i = numPadres - 1; i > 0; i--) {
+            int j = rng.nextInt(i + 1);
+            int temp = lote[i];
+            lote[i] = lote[j];
+            lote[j] = temp;
+        }
+        numLote = numPadres;
+        siguienteLote = 0;
+    }
+}
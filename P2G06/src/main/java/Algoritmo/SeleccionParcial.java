@@ -0,0 +1,58 @@
+package Algoritmo;
+
+/**
+ * Selección parcial por quickselect: coloca en las primeras k posiciones de idx los
+ * índices con menor clave (en orden arbitrario) en O(n) de media, sin ordenar el resto.
+ * Se usa en el reemplazo (μ + λ), donde solo importa qué individuos sobreviven.
+ * La partición es a tres bandas porque en poblaciones convergidas abundan los empates.
+ */
+final class SeleccionParcial {
+
+    private SeleccionParcial() {
+    }
+
+    // Reordena idx[0 .. total) para que idx[0 .. k) sean los k índices de menor clave[idx[i]]
+    static void menores(int[] idx, int total, int k, double[] clave) {
+        menores(idx, 0, total, k, clave);
+    }
+
+    // Igual, sobre el tramo idx[desde .. hasta): los k menores quedan en idx[desde .. desde + k)
+    static void menores(int[] idx, int desde, int hasta, int k, double[] clave) {
+        if (k <= 0 || k >= hasta - desde) {
+            return;
+        }
+        int objetivo = desde + k - 1;
+        int lo = desde, hi = hasta - 1;
+        while (lo < hi) {
+            // Mediana de tres como pivote
+            int mid = (lo + hi) >>> 1;
+            double a = clave[idx[lo]], b = clave[idx[mid]], c = clave[idx[hi]];
+            double pivote = a < b ? (b < c ? b : Math.max(a, c)) : (a < c ? a : Math.max(b, c));
+            // Partición a tres bandas: [lo, lt) < pivote, [lt, gt] == pivote, (gt, hi] > pivote
+            int lt = lo, i = lo, gt = hi;
+            while (i <= gt) {
+                double v = clave[idx[i]];
+                if (v < pivote) {
+                    intercambiar(idx, lt++, i++);
+                } else if (v > pivote) {
+                    intercambiar(idx, i, gt--);
+                } else {
+                    i++;
+                }
+            }
+            if (objetivo < lt) {
+                hi = lt - 1;
+            } else if (objetivo > gt) {
+                lo = gt + 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void intercambiar(int[] idx, int a, int b) {
+        int t = idx[a];
+        idx[a] = idx[b];
+        idx[b] = t;
+    }
+}
@@ -0,0 +1,103 @@
+package Algoritmo;
+
+import java.awt.Point;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Tablas precalculadas para el fitness de suavidad (fitnessType 2).
+ * Los tramos entre dos puntos (base o habitaciones) son fijos para un mapa, así que
+ * para cada par (i, j) se guarda la penalización de los giros internos del tramo y
+ * los códigos de dirección de su primer y último paso. El giro en la unión de dos
+ * tramos consecutivos sale de una tabla 9x9 por códigos de dirección, de modo que el
+ * fitness cuesta O(habitaciones) en lugar de O(celdas de la ruta) sin trigonometría.
+ */
+public class TablaSuavidad {
+    // Código de dirección de un paso (dr, dc) con dr, dc en {-1, 0, 1}: (dr + 1) * 3 + (dc + 1)
+    private static final int SIN_DIRECCION = 4; // (0, 0): tramo vacío
+    private static final double[] PENALIZACION_UNION = new double[81];
+
+    static {
+        for (int a = 0; a < 9; a++) {
+            for (int b = 0; b < 9; b++) {
+                PENALIZACION_UNION[a * 9 + b] = penalizacionGiro(a / 3 - 1, a % 3 - 1, b / 3 - 1, b % 3 - 1);
+            }
+        }
+    }
+
+    private final int size;
+    private final double[] giros;      // Penalización interna de cada tramo
+    private final byte[] salida;       // Dirección del primer paso de cada tramo
+    private final byte[] entrada;      // Dirección del último paso de cada tramo
+    private final boolean[] alcanzable;
+
+    public TablaSuavidad(DistanceMatrix distancias) {
+        size = distancias.size();
+        giros = new double[size * size];
+        salida = new byte[size * size];
+        entrada = new byte[size * size];
+        alcanzable = new boolean[size * size];
+        IntStream.range(0, size).parallel().forEach(i -> {
+            for (int j = 0; j < size; j++) {
+                if (i != j) {
+                    registrarTramo(i * size + j, distancias.ruta(i, j));
+                }
+            }
+        });
+    }
+
+    private void registrarTramo(int k, List<Point> tramo) {
+        if (tramo == null) {
+            return;
+        }
+        alcanzable[k] = true;
+        if (tramo.size() < 2) {
+            salida[k] = SIN_DIRECCION;
+            entrada[k] = SIN_DIRECCION;
+            return;
+        }
+        double penalizacion = 0;
+        for (int i = 1; i < tramo.size() - 1; i++) {
+            Point p0 = tramo.get(i - 1);
+            Point p1 = tramo.get(i);
+            Point p2 = tramo.get(i + 1);
+            penalizacion += penalizacionGiro(p1.x - p0.x, p1.y - p0.y, p2.x - p1.x, p2.y - p1.y);
+        }
+        giros[k] = penalizacion;
+        Point a = tramo.get(0), b = tramo.get(1);
+        salida[k] = (byte) codigo(b.x - a.x, b.y - a.y);
+        Point y = tramo.get(tramo.size() - 2), z = tramo.get(tramo.size() - 1);
+        entrada[k] = (byte) codigo(z.x - y.x, z.y - y.y);
+    }
+
+    private static int codigo(int dr, int dc) {
+        return (Integer.signum(dr) + 1) * 3 + (Integer.signum(dc) + 1);
+    }
+
+    // Penalización de un giro entre dos pasos consecutivos: 1 - cos(ángulo)
+    static double penalizacionGiro(double vx1, double vy1, double vx2, double vy2) {
+        double norm1 = Math.sqrt(vx1 * vx1 + vy1 * vy1);
+        double norm2 = Math.sqrt(vx2 * vx2 + vy2 * vy2);
+        if (norm1 > 0 && norm2 > 0) {
+            double cosTheta = (vx1 * vx2 + vy1 * vy2) / (norm1 * norm2);
+            cosTheta = Math.max(-1, Math.min(1, cosTheta));
+            double angle = Math.acos(cosTheta);
+            return 1 - Math.cos(angle);
+        }
+        return 0;
+    }
+
+    public boolean esAlcanzable(int desde, int hasta) {
+        return alcanzable[desde * size + hasta];
+    }
+
+    // Penalización de los giros internos del tramo desde -> hasta
+    public double giros(int desde, int hasta) {
+        return giros[desde * size + hasta];
+    }
+
+    // Penalización del giro en la unión del tramo a1 -> a2 con el tramo a2 -> b
+    public double union(int a1, int a2, int b) {
+        return PENALIZACION_UNION[entrada[a1 * size + a2] * 9 + salida[a2 * size + b]];
+    }
+}
@@ -0,0 +1,9 @@
+package Algoritmo;
+
+/**
+ * Topología de migración entre las islas de AlgoritmoGeneticoIslas.
+ */
+public enum TopologiaMigracion {
+    ANILLO,   // Cada isla envía sus mejores individuos a la siguiente
+    COMPLETA; // Cada isla recibe los mejores de entre los emigrantes de todas las demás
+}
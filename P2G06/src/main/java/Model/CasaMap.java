@@ -1,19 +1,38 @@
 package Model;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import Algoritmo.DistanceMatrix;
+import Algoritmo.HPAStar;
+import Algoritmo.ModoBusqueda;
+import Algoritmo.RouteCache;
 
 public class CasaMap {
     public static final int ROWS = 15;
     public static final int COLS = 15;
+    private final int rows;
+    private final int cols;
     private char[][] grid;
+    private WalkableBitGrid transitables; // Celdas transitables empaquetadas a bit (leídas por las búsquedas)
     private List<Room> rooms;
+    private DistanceMatrix distanceMatrix;
+    private final RouteCache routeCache;
+    private ModoBusqueda modoBusqueda = ModoBusqueda.ASTAR;
+    private HPAStar jerarquia; // Grafo jerárquico, se construye la primera vez que se usa HPA
     
-    // Posición fija de la base
-    private final int baseRow = 7;
-    private final int baseCol = 7;
+    // Posición de la base (fija en la casa por defecto)
+    private final int baseRow;
+    private final int baseCol;
     
     public CasaMap() {
+        rows = ROWS;
+        cols = COLS;
+        baseRow = 7;
+        baseCol = 7;
         grid = new char[ROWS][COLS];
         // Inicializamos la cuadrícula con espacios
         for (int i = 0; i < ROWS; i++) {
@@ -83,17 +102,112 @@ public class CasaMap {
         
         // Obstáculo adicional: se añade un obstáculo representado por 'X'
         grid[6][6] = 'X';
+        
+        transitables = new WalkableBitGrid(grid);
+        routeCache = new RouteCache(cols);
+        // Distancias base/habitaciones precalculadas una sola vez para el fitness
+        distanceMatrix = new DistanceMatrix(this);
+    }
+    
+    /**
+     * Crea un mapa a partir de una cuadrícula arbitraria (p. ej. el plano de un edificio
+     * de miles de celdas por lado). Las paredes se marcan con '■' y los IDs de las
+     * habitaciones deben ser 1..n en el mismo orden que la lista.
+     */
+    public CasaMap(char[][] grid, List<Room> rooms, int baseRow, int baseCol, ModoBusqueda modoBusqueda) {
+        this.grid = grid;
+        this.rooms = rooms;
+        this.rows = grid.length;
+        this.cols = grid[0].length;
+        this.baseRow = baseRow;
+        this.baseCol = baseCol;
+        this.modoBusqueda = modoBusqueda;
+        transitables = new WalkableBitGrid(grid);
+        routeCache = new RouteCache(cols);
+        distanceMatrix = new DistanceMatrix(this);
+    }
+    
+    /**
+     * Carga un mapa de un fichero de texto: primero la cuadrícula, una fila por línea
+     * ('■' o '#' para las paredes, 'B' para la base), después una línea "---" y una
+     * habitación por línea con el formato "fila,columna[,nombre]". Los IDs son 1..n
+     * en el orden del fichero. Cada habitación debe estar dentro de la cuadrícula y
+     * sobre una celda transitable, y debe haber una sola base.
+     */
+    public static CasaMap desdeFichero(Path fichero, ModoBusqueda modoBusqueda) throws IOException {
+        List<String> lineas = Files.readAllLines(fichero, StandardCharsets.UTF_8);
+        int separador = lineas.indexOf("---");
+        if (separador <= 0) {
+            throw new IOException("Falta la línea \"---\" entre la cuadrícula y las habitaciones: " + fichero);
+        }
+        int filas = separador;
+        int columnas = 0;
+        for (int i = 0; i < filas; i++) {
+            columnas = Math.max(columnas, lineas.get(i).length());
+        }
+        char[][] grid = new char[filas][columnas];
+        int baseRow = -1, baseCol = -1;
+        for (int i = 0; i < filas; i++) {
+            String linea = lineas.get(i);
+            for (int j = 0; j < columnas; j++) {
+                char c = j < linea.length() ? linea.charAt(j) : ' ';
+                grid[i][j] = c == '#' ? '■' : c;
+                if (c == 'B') {
+                    if (baseRow >= 0) {
+                        throw new IOException("Segunda base ('B') en la línea " + (i + 1) + ": " + fichero);
+                    }
+                    baseRow = i;
+                    baseCol = j;
+                }
+            }
+        }
+        if (baseRow < 0) {
+            throw new IOException("El mapa no tiene base ('B'): " + fichero);
+        }
+        List<Room> rooms = new ArrayList<>();
+        for (int i = separador + 1; i < lineas.size(); i++) {
+            String linea = lineas.get(i).trim();
+            if (linea.isEmpty()) {
+                continue;
+            }
+            String[] campos = linea.split(",", 3);
+            try {
+                int id = rooms.size() + 1;
+                int r = Integer.parseInt(campos[0].trim());
+                int c = Integer.parseInt(campos[1].trim());
+                String nombre = campos.length > 2 ? campos[2].trim() : "Habitación " + id;
+                if (r < 0 || r >= filas || c < 0 || c >= columnas) {
+                    throw new IOException("Habitación fuera de la cuadrícula (" + filas + "x" + columnas
+                            + ") en la línea " + (i + 1) + ": " + linea);
+                }
+                if (grid[r][c] == '■') {
+                    throw new IOException("Habitación sobre una pared en la línea " + (i + 1) + ": " + linea);
+                }
+                rooms.add(new Room(id, nombre, r, c));
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new IOException("Habitación mal formada en la línea " + (i + 1) + ": " + linea, e);
+            }
+        }
+        return new CasaMap(grid, rooms, baseRow, baseCol, modoBusqueda);
     }
     
     public void printMap() {
-        for (int i = 0; i < ROWS; i++) {
-            for (int j = 0; j < COLS; j++) {
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
                 System.out.print(String.format("|%2s", grid[i][j]));
             }
             System.out.println("|");
         }
     }
     
+    public int getRows() {
+        return rows;
+    }
+    
+    public int getCols() {
+        return cols;
+    }
+    
     public List<Room> getRooms() {
         return rooms;
     }
@@ -109,4 +223,36 @@ public class CasaMap {
     public char[][] getGrid() {
         return grid;
     }
+    
+    public WalkableBitGrid getTransitables() {
+        return transitables;
+    }
+    
+    public ModoBusqueda getModoBusqueda() {
+        return modoBusqueda;
+    }
+    
+    // Cambia el algoritmo de búsqueda del mapa; las rutas ya calculadas se descartan y
+    // se recalcula la matriz de distancias (HPA puede dar caminos algo más largos que A*/JPS)
+    public void setModoBusqueda(ModoBusqueda modoBusqueda) {
+        this.modoBusqueda = modoBusqueda;
+        routeCache.clear();
+        distanceMatrix = new DistanceMatrix(this);
+    }
+    
+    // Grafo jerárquico del mapa, precalculado una sola vez
+    public synchronized HPAStar getJerarquia() {
+        if (jerarquia == null) {
+            jerarquia = new HPAStar(transitables, HPAStar.TAM_CLUSTER_POR_DEFECTO);
+        }
+        return jerarquia;
+    }
+    
+    public RouteCache getRouteCache() {
+        return routeCache;
+    }
+    
+    public DistanceMatrix getDistanceMatrix() {
+        return distanceMatrix;
+    }
 }
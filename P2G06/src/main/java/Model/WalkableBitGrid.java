@@ -0,0 +1,75 @@
+package Model;
+
+/**
+ * Representación compacta de las celdas transitables de un mapa: un bit por celda
+ * en un long[] (frente a los 16 bits de un char). La cuadrícula se rodea de un borde
+ * de una celda marcado como obstáculo, de modo que los vecinos de cualquier celda
+ * interior siempre tienen un índice válido y las búsquedas no necesitan comprobar límites.
+ * Índice de (r, c): (r + 1) * ancho + (c + 1), con ancho = cols + 2.
+ */
+public final class WalkableBitGrid {
+    private final int rows, cols;
+    private final int ancho;
+    private final long[] bits;
+
+    public WalkableBitGrid(char[][] grid) {
+        this.rows = grid.length;
+        this.cols = grid[0].length;
+        this.ancho = cols + 2;
+        this.bits = new long[((rows + 2) * ancho + 63) >>> 6];
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                if (grid[r][c] != '■') {
+                    int i = indice(r, c);
+                    bits[i >>> 6] |= 1L << i;
+                }
+            }
+        }
+    }
+
+    // Índice con borde; válido para -1 <= r <= rows y -1 <= c <= cols
+    public int indice(int r, int c) {
+        return (r + 1) * ancho + (c + 1);
+    }
+
+    public int fila(int indice) {
+        return indice / ancho - 1;
+    }
+
+    public int columna(int indice) {
+        return indice % ancho - 1;
+    }
+
+    // Consulta sin comprobación de límites (el borde siempre es obstáculo)
+    public boolean libre(int indice) {
+        return (bits[indice >>> 6] & (1L << indice)) != 0;
+    }
+
+    // Igual que libre(int), válido para -1 <= r <= rows y -1 <= c <= cols
+    public boolean libre(int r, int c) {
+        return libre(indice(r, c));
+    }
+
+    // Versión con comprobación de límites para coordenadas arbitrarias
+    public boolean esTransitable(int r, int c) {
+        return r >= 0 && r < rows && c >= 0 && c < cols && libre(r, c);
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    // Ancho con borde (desplazamiento de índice entre una fila y la siguiente)
+    public int getAncho() {
+        return ancho;
+    }
+
+    // Número total de índices, incluido el borde
+    public int getNumIndices() {
+        return (rows + 2) * ancho;
+    }
+}
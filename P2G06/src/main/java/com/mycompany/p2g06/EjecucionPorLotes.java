@@ -0,0 +1,554 @@
+package com.mycompany.p2g06;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import Model.CasaMap;
+import Algoritmo.AlgorimoGeneticoRuta;
+import Algoritmo.AlgoritmoGeneticoIslas;
+import Algoritmo.AlgoritmoGeneticoPlano;
+import Algoritmo.HistogramaMetricas;
+import Algoritmo.IndividuoRuta;
+import Algoritmo.ModoBusqueda;
+import Algoritmo.ModoEvaluacion;
+import Algoritmo.MotivoParada;
+import Algoritmo.ProgresoGeneracion;
+import Algoritmo.ProgresoListener;
+import Algoritmo.TopologiaMigracion;
+
+/**
+ * Punto de entrada sin interfaz gráfica para lanzar lotes de ejecuciones (servidores,
+ * pruebas nocturnas). Los parámetros se leen de un fichero .properties (config=fichero)
+ * y/o de argumentos clave=valor, que tienen prioridad. Las repeticiones se reparten entre
+ * varios hilos; cada una escribe sus estadísticas por generación según avanza y su
+ * resultado al terminar, en el directorio de salida (CSV o JSON por líneas).
+ *
+ * Ejemplo: java -cp G06P2.jar com.mycompany.p2g06.EjecucionPorLotes poblacion=200 repeticiones=10 formato=json
+ */
+public class EjecucionPorLotes {
+
+    // Intervalo mínimo entre volcados de las filas por generación (un volcado por fila frenaría las ejecuciones cortas)
+    private static final long VOLCADO_NANOS = 200_000_000L;
+
+    // Parámetros admitidos y su valor por defecto (los mismos que la interfaz)
+    private static final String[][] PARAMETROS = {
+        {"mapa", "casa"},                 // "casa" o fichero de mapa (ver CasaMap.desdeFichero)
+        {"busqueda", "ASTAR"},            // ASTAR, JPS o HPA
+        {"motor", "objetos"},             // objetos, islas o plano
+        {"poblacion", "50"},
+        {"generaciones", "300"},
+        {"probCruce", "0.8"},
+        {"probMutacion", "0.3"},
+        {"fitness", "1"},                 // 1 = distancia, 2 = distancia + suavidad
+        {"seleccion", "1"},               // Índices de OperadoresGeneticos; en islas, lista por isla
+        {"cruce", "0"},
+        {"mutacion", "1"},
+        {"evaluacion", "SECUENCIAL"},     // SECUENCIAL, FORK_JOIN o HILOS_VIRTUALES (motor objetos)
+        {"hilosEvaluacion", "1"},
+        {"busquedaLocal", "0"},           // Fracción de hijos con búsqueda local (motor objetos)
+        {"estancamiento", "0"},           // Parada anticipada (0 = desactivada): generaciones sin mejora
+        {"diversidadMinima", "0"},        // Umbral de diversidad de la población
+        {"maxEvaluaciones", "0"},         // Evaluaciones máximas
+        {"tiempoMs", "0"},                // Presupuesto de tiempo por repetición
+        {"metricas", "false"},            // Tiempos por fase de cada repetición en la salida de error (motor objetos)
+        {"islas", "4"},
+        {"topologia", "ANILLO"},          // ANILLO o COMPLETA
+        {"intervaloMigracion", "10"},
+        {"migrantes", "2"},
+        {"repeticiones", "1"},
+        {"hilos", "0"},                   // Repeticiones en paralelo; 0 = núcleos disponibles
+        {"semilla", ""},                  // Semilla base; la repetición i usa semilla + i (vacía = aleatoria)
+        {"salida", "resultados"},
+        {"formato", "csv"},               // csv o json
+    };
+
+    private final Properties config;
+    private final CasaMap map;
+    private final BufferedWriter resultados;
+    private final BufferedWriter generaciones;
+    private final boolean json;
+    private long ultimoVolcado; // Última vez que se volcó generaciones al disco (System.nanoTime)
+
+    // Si una repetición falla se cancelan las demás y ya no se escribe nada más
+    private volatile boolean abortado;
+    private final Set<Runnable> cancelaciones = ConcurrentHashMap.newKeySet(); // Una por repetición en curso
+
+    public static void main(String[] args) {
+        try {
+            new EjecucionPorLotes(leerConfiguracion(args)).ejecutar();
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.err.println(uso());
+            System.exit(1);
+        }
+    }
+
+    // Combina los valores por defecto, el fichero de configuración y los argumentos clave=valor
+    static Properties leerConfiguracion(String[] args) throws IOException {
+        Properties config = new Properties();
+        for (String[] p : PARAMETROS) {
+            config.setProperty(p[0], p[1]);
+        }
+        Properties argumentos = new Properties();
+        for (String arg : args) {
+            String a = arg.startsWith("--") ? arg.substring(2) : arg;
+            int igual = a.indexOf('=');
+            if (igual <= 0) {
+                throw new IllegalArgumentException("Argumento no válido: " + arg);
+            }
+            argumentos.setProperty(a.substring(0, igual), a.substring(igual + 1));
+        }
+        String fichero = argumentos.getProperty("config");
+        if (fichero != null) {
+            try (Reader r = Files.newBufferedReader(Paths.get(fichero), StandardCharsets.UTF_8)) {
+                config.load(r);
+            }
+        }
+        config.putAll(argumentos);
+        config.remove("config");
+        for (String clave : config.stringPropertyNames()) {
+            if (!esParametro(clave)) {
+                throw new IllegalArgumentException("Parámetro desconocido: " + clave);
+            }
+        }
+        return config;
+    }
+
+    private static boolean esParametro(String clave) {
+        for (String[] p : PARAMETROS) {
+            if (p[0].equals(clave)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String uso() {
+        StringBuilder sb = new StringBuilder("Uso: EjecucionPorLotes [config=fichero.properties] [clave=valor ...]\nParámetros (valor por defecto):\n");
+        for (String[] p : PARAMETROS) {
+            sb.append("  ").append(p[0]).append(" (").append(p[1].isEmpty() ? "aleatoria" : p[1]).append(")\n");
+        }
+        return sb.toString();
+    }
+
+    EjecucionPorLotes(Properties config) throws IOException {
+        this.config = config;
+        validar();
+        ModoBusqueda busqueda = opcion("busqueda", ModoBusqueda.class);
+        String mapa = texto("mapa");
+        if (mapa.equals("casa")) {
+            map = new CasaMap();
+            if (busqueda != map.getModoBusqueda()) {
+                map.setModoBusqueda(busqueda);
+            }
+        } else {
+            map = CasaMap.desdeFichero(Paths.get(mapa), busqueda);
+        }
+        // IndividuoRuta (motores objetos e islas) trabaja con rutas de 20 habitaciones
+        if (!texto("motor").equals("plano") && map.getRooms().size() != 20) {
+            throw new IllegalArgumentException("Los motores objetos e islas necesitan 20 habitaciones; usa motor=plano");
+        }
+        json = texto("formato").equalsIgnoreCase("json");
+        Path salida = Paths.get(texto("salida"));
+        Files.createDirectories(salida);
+        String extension = json ? ".jsonl" : ".csv";
+        resultados = Files.newBufferedWriter(salida.resolve("resultados" + extension), StandardCharsets.UTF_8);
+        generaciones = Files.newBufferedWriter(salida.resolve("generaciones" + extension), StandardCharsets.UTF_8);
+        if (!json) {
+            resultados.write("repeticion,semilla,motor,poblacion,generaciones,fitness,seleccion,cruce,mutacion,mejorFitness,ruta,milisegundos,motivoParada,generacionesEjecutadas\n");
+            generaciones.write("repeticion,generacion,mejor,media,mejorAbsoluto\n");
+        }
+    }
+
+    void ejecutar() throws IOException {
+        int repeticiones = entero("repeticiones");
+        int hilos = entero("hilos") > 0 ? entero("hilos") : Runtime.getRuntime().availableProcessors();
+        long semillaBase = texto("semilla").isEmpty() ? System.nanoTime() : largo("semilla");
+        ExecutorService ejecutor = Executors.newFixedThreadPool(Math.min(hilos, Math.max(1, repeticiones)));
+        List<Future<?>> tareas = new ArrayList<>();
+        boolean completado = false;
+        try {
+            for (int i = 0; i < repeticiones; i++) {
+                int repeticion = i;
+                tareas.add(ejecutor.submit(() -> {
+                    ejecutarRepeticion(repeticion, semillaBase + repeticion);
+                    return null;
+                }));
+            }
+            for (Future<?> f : tareas) {
+                f.get();
+            }
+            completado = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Ejecución por lotes interrumpida", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw (IllegalArgumentException) e.getCause();
+            }
+            throw new IllegalStateException("Error en una repetición", e.getCause());
+        } finally {
+            if (!completado) {
+                // Se detienen las repeticiones pendientes y en curso antes de cerrar la salida
+                abortado = true;
+                for (Future<?> f : tareas) {
+                    f.cancel(false);
+                }
+                for (Runnable cancelar : cancelaciones) {
+                    cancelar.run();
+                }
+            }
+            // Sin interrumpir los hilos: las repeticiones en curso ya se han cancelado y terminan
+            // su generación (una interrupción haría fallar al motor islas, que espera a sus islas)
+            ejecutor.shutdown();
+            esperar(ejecutor);
+            resultados.close();
+            generaciones.close();
+        }
+    }
+
+    // Espera a que terminen las repeticiones que seguían en marcha (se cancelan al acabar su generación)
+    private static void esperar(ExecutorService ejecutor) {
+        try {
+            while (!ejecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Una generación muy larga: se sigue esperando
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Ejecuta la evolución con su cancelación registrada, por si otra repetición falla mientras tanto
+    private void evolucionar(Runnable evolucion, Runnable cancelar) {
+        cancelaciones.add(cancelar);
+        try {
+            if (abortado) {
+                cancelar.run();
+            }
+            evolucion.run();
+        } finally {
+            cancelaciones.remove(cancelar);
+        }
+    }
+
+    private void ejecutarRepeticion(int repeticion, long semilla) {
+        long inicio = System.nanoTime();
+        IndividuoRuta mejor;
+        MotivoParada motivo;
+        int generacionesEjecutadas;
+        // Las filas por generación se escriben según terminan, no al final de la repetición
+        ProgresoListener filas = p -> escribirGeneracion(repeticion, p);
+        switch (texto("motor")) {
+            case "islas": {
+                AlgoritmoGeneticoIslas ag = new AlgoritmoGeneticoIslas(entero("poblacion"), entero("generaciones"),
+                        decimal("probMutacion"), decimal("probCruce"), map, entero("fitness"), configuracionesIslas(),
+                        opcion("topologia", TopologiaMigracion.class),
+                        entero("intervaloMigracion"), entero("migrantes"), new SplittableRandom(semilla));
+                ag.setMostrarProgreso(false);
+                ag.setProgresoListener(filas);
+                ag.setParadaPorEstancamiento(entero("estancamiento"));
+                ag.setDiversidadMinima(decimal("diversidadMinima"));
+                ag.setMaxEvaluaciones(largo("maxEvaluaciones"));
+                ag.setPresupuestoTiempo(largo("tiempoMs"));
+                evolucionar(ag::evolucionar, ag::cancelar);
+                mejor = ag.getMejor();
+                generacionesEjecutadas = ag.getGeneracionesEjecutadas();
+                motivo = ag.getMotivoParada();
+                break;
+            }
+            case "plano": {
+                AlgoritmoGeneticoPlano ag = new AlgoritmoGeneticoPlano(entero("poblacion"), entero("generaciones"),
+                        decimal("probMutacion"), decimal("probCruce"), map, entero("fitness"),
+                        entero("seleccion"), entero("cruce"), entero("mutacion"), new SplittableRandom(semilla));
+                ag.setMostrarProgreso(false);
+                ag.setProgresoListener(filas);
+                ag.setParadaPorEstancamiento(entero("estancamiento"));
+                ag.setDiversidadMinima(decimal("diversidadMinima"));
+                ag.setMaxEvaluaciones(largo("maxEvaluaciones"));
+                ag.setPresupuestoTiempo(largo("tiempoMs"));
+                evolucionar(ag::evolucionar, ag::cancelar);
+                mejor = ag.getMejor();
+                generacionesEjecutadas = ag.getGeneracionesEjecutadas();
+                motivo = ag.getMotivoParada();
+                break;
+            }
+            case "objetos": {
+                AlgorimoGeneticoRuta ag = new AlgorimoGeneticoRuta(entero("poblacion"), entero("generaciones"),
+                        decimal("probMutacion"), decimal("probCruce"), map, entero("fitness"),
+                        entero("seleccion"), entero("cruce"), entero("mutacion"),
+                        opcion("evaluacion", ModoEvaluacion.class), entero("hilosEvaluacion"),
+                        new SplittableRandom(semilla));
+                ag.setMostrarProgreso(false);
+                ag.setProgresoListener(filas);
+                ag.setBusquedaLocal(decimal("busquedaLocal"));
+                ag.setParadaPorEstancamiento(entero("estancamiento"));
+                ag.setDiversidadMinima(decimal("diversidadMinima"));
+                ag.setMaxEvaluaciones(largo("maxEvaluaciones"));
+                ag.setPresupuestoTiempo(largo("tiempoMs"));
+                HistogramaMetricas metricas = booleano("metricas") ? new HistogramaMetricas() : null;
+                ag.setMetricasListener(metricas);
+                evolucionar(ag::evolucionar, ag::cancelar);
+                if (metricas != null) {
+                    System.err.println("Repetición " + repeticion + ": " + metricas.resumen());
+                }
+                mejor = ag.getMejor();
+                generacionesEjecutadas = ag.getGeneracionesEjecutadas();
+                motivo = ag.getMotivoParada();
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Motor desconocido: " + texto("motor"));
+        }
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        try {
+            // Si se canceló por el fallo de otra repetición, motivo es CANCELADO y mejor el mejor hasta entonces
+            escribirResultado(repeticion, semilla, mejor, milisegundos, motivo, generacionesEjecutadas);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        System.err.printf(Locale.ROOT, "Repetición %d: fitness %.2f (%d ms)%n", repeticion, mejor.getFitness(), milisegundos);
+    }
+
+    // Una isla por valor de la lista más larga de seleccion/cruce/mutacion (o el número de islas indicado)
+    private List<AlgoritmoGeneticoIslas.ConfiguracionIsla> configuracionesIslas() {
+        int[] seleccion = lista("seleccion"), cruce = lista("cruce"), mutacion = lista("mutacion");
+        int numIslas = Math.max(entero("islas"), Math.max(seleccion.length, Math.max(cruce.length, mutacion.length)));
+        List<AlgoritmoGeneticoIslas.ConfiguracionIsla> configuraciones = new ArrayList<>();
+        for (int i = 0; i < numIslas; i++) {
+            configuraciones.add(new AlgoritmoGeneticoIslas.ConfiguracionIsla(
+                    seleccion[i % seleccion.length], cruce[i % cruce.length], mutacion[i % mutacion.length]));
+        }
+        return configuraciones;
+    }
+
+    private synchronized void escribirResultado(int repeticion, long semilla, IndividuoRuta mejor, long milisegundos,
+            MotivoParada motivo, int generacionesEjecutadas) throws IOException {
+        StringBuilder ruta = new StringBuilder();
+        for (int id : mejor.getRuta()) {
+            ruta.append(ruta.length() == 0 ? "" : " ").append(id);
+        }
+        if (json) {
+            resultados.write(String.format(Locale.ROOT,
+                    "{\"repeticion\":%d,\"semilla\":%d,\"motor\":\"%s\",\"poblacion\":%d,\"generaciones\":%d,\"fitness\":%d,"
+                    + "\"seleccion\":\"%s\",\"cruce\":\"%s\",\"mutacion\":\"%s\",\"mejorFitness\":%s,\"ruta\":[%s],\"milisegundos\":%d,"
+                    + "\"motivoParada\":\"%s\",\"generacionesEjecutadas\":%d}%n",
+                    repeticion, semilla, texto("motor"), entero("poblacion"), entero("generaciones"), entero("fitness"),
+                    texto("seleccion"), texto("cruce"), texto("mutacion"), numero(mejor.getFitness()),
+                    ruta.toString().replace(' ', ','), milisegundos, motivo, generacionesEjecutadas));
+        } else {
+            resultados.write(String.format(Locale.ROOT, "%d,%d,%s,%d,%d,%d,\"%s\",\"%s\",\"%s\",%s,%s,%d,%s,%d%n",
+                    repeticion, semilla, texto("motor"), entero("poblacion"), entero("generaciones"), entero("fitness"),
+                    texto("seleccion"), texto("cruce"), texto("mutacion"), numero(mejor.getFitness()), ruta, milisegundos,
+                    motivo, generacionesEjecutadas));
+        }
+        resultados.flush();
+        generaciones.flush();
+    }
+
+    // Escribe la fila de una generación; el fichero se vuelca como mucho cada VOLCADO_NANOS
+    private synchronized void escribirGeneracion(int repeticion, ProgresoGeneracion p) {
+        try {
+            if (json) {
+                generaciones.write(String.format(Locale.ROOT,
+                        "{\"repeticion\":%d,\"generacion\":%d,\"mejor\":%s,\"media\":%s,\"mejorAbsoluto\":%s}%n",
+                        repeticion, p.getGeneracion(), numero(p.getMejor()), numero(p.getMedia()), numero(p.getMejorAbsoluto())));
+            } else {
+                generaciones.write(String.format(Locale.ROOT, "%d,%d,%s,%s,%s%n",
+                        repeticion, p.getGeneracion(), numero(p.getMejor()), numero(p.getMedia()), numero(p.getMejorAbsoluto())));
+            }
+            long ahora = System.nanoTime();
+            if (ahora - ultimoVolcado >= VOLCADO_NANOS) {
+                generaciones.flush();
+                ultimoVolcado = ahora;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Número en formato válido para CSV y JSON (JSON no admite Infinity ni NaN)
+    private String numero(double valor) {
+        if (Double.isFinite(valor)) {
+            return Double.toString(valor);
+        }
+        return json ? "null" : Double.toString(valor);
+    }
+
+    // --- Lectura de parámetros ---
+
+    // Comprueba todos los parámetros antes de crear la salida, para que un valor mal escrito
+    // se detecte al arrancar y no dentro de las repeticiones
+    private void validar() {
+        String motor = texto("motor");
+        if (!motor.equals("objetos") && !motor.equals("islas") && !motor.equals("plano")) {
+            throw new IllegalArgumentException("Motor desconocido: " + motor + " (objetos, islas o plano)");
+        }
+        opcion("busqueda", ModoBusqueda.class);
+        int poblacion = entero("poblacion", 2, Integer.MAX_VALUE);
+        entero("generaciones", 1, Integer.MAX_VALUE);
+        decimal("probCruce", 0, 1);
+        decimal("probMutacion", 0, 1);
+        entero("fitness", 1, 2);
+        // En el motor islas cada operador puede ser una lista con un valor por isla
+        int maxValores = motor.equals("islas") ? Integer.MAX_VALUE : 1;
+        lista("seleccion", 0, 5, maxValores);
+        lista("cruce", 0, 6, maxValores);
+        lista("mutacion", 0, 5, maxValores);
+        opcion("evaluacion", ModoEvaluacion.class);
+        entero("hilosEvaluacion", 1, Integer.MAX_VALUE);
+        decimal("busquedaLocal", 0, 1);
+        entero("estancamiento", 0, Integer.MAX_VALUE);
+        decimal("diversidadMinima", 0, 1);
+        largo("maxEvaluaciones", 0);
+        largo("tiempoMs", 0);
+        booleano("metricas");
+        entero("islas", 1, Integer.MAX_VALUE);
+        opcion("topologia", TopologiaMigracion.class);
+        entero("intervaloMigracion", 0, Integer.MAX_VALUE);
+        entero("migrantes", 0, poblacion);
+        entero("repeticiones", 1, Integer.MAX_VALUE);
+        entero("hilos", 0, Integer.MAX_VALUE);
+        if (!texto("semilla").isEmpty()) {
+            largo("semilla");
+        }
+        // Opciones que solo tiene el motor objetos: en los demás se rechazan en lugar de ignorarlas
+        if (!motor.equals("objetos")) {
+            if (opcion("evaluacion", ModoEvaluacion.class) != ModoEvaluacion.SECUENCIAL || entero("hilosEvaluacion") != 1) {
+                throw new IllegalArgumentException("evaluacion e hilosEvaluacion solo se aplican a motor=objetos");
+            }
+            if (decimal("busquedaLocal") > 0) {
+                throw new IllegalArgumentException("busquedaLocal solo se aplica a motor=objetos");
+            }
+            if (booleano("metricas")) {
+                throw new IllegalArgumentException("metricas solo se aplica a motor=objetos");
+            }
+        }
+        if (!texto("formato").equalsIgnoreCase("csv") && !texto("formato").equalsIgnoreCase("json")) {
+            throw new IllegalArgumentException("Formato desconocido: " + texto("formato") + " (csv o json)");
+        }
+    }
+
+    private String texto(String clave) {
+        return config.getProperty(clave).trim();
+    }
+
+    private int entero(String clave) {
+        try {
+            return Integer.parseInt(texto(clave));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Se esperaba un entero en " + clave + ": " + texto(clave));
+        }
+    }
+
+    private int entero(String clave, int min, int max) {
+        int valor = entero(clave);
+        if (valor < min || valor > max) {
+            throw new IllegalArgumentException(fueraDeRango(clave,
+                    max == Integer.MAX_VALUE ? "mínimo " + min : "de " + min + " a " + max));
+        }
+        return valor;
+    }
+
+    private long largo(String clave, long min) {
+        long valor = largo(clave);
+        if (valor < min) {
+            throw new IllegalArgumentException(fueraDeRango(clave, "mínimo " + min));
+        }
+        return valor;
+    }
+
+    private double decimal(String clave, double min, double max) {
+        double valor = decimal(clave);
+        if (!(valor >= min && valor <= max)) {
+            throw new IllegalArgumentException(fueraDeRango(clave, "de " + min + " a " + max));
+        }
+        return valor;
+    }
+
+    private String fueraDeRango(String clave, String limites) {
+        return "Valor fuera de rango en " + clave + ": " + texto(clave) + " (" + limites + ")";
+    }
+
+    private boolean booleano(String clave) {
+        String valor = texto(clave);
+        if (!valor.equalsIgnoreCase("true") && !valor.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException("Se esperaba true o false en " + clave + ": " + valor);
+        }
+        return Boolean.parseBoolean(valor);
+    }
+
+    // Constante del enum sin distinguir mayúsculas
+    private <E extends Enum<E>> E opcion(String clave, Class<E> tipo) {
+        try {
+            return Enum.valueOf(tipo, texto(clave).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Valor no válido en " + clave + ": " + texto(clave)
+                    + " (" + Arrays.toString(tipo.getEnumConstants()) + ")");
+        }
+    }
+
+    private long largo(String clave) {
+        try {
+            return Long.parseLong(texto(clave));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Se esperaba un entero en " + clave + ": " + texto(clave));
+        }
+    }
+
+    private double decimal(String clave) {
+        try {
+            return Double.parseDouble(texto(clave));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Se esperaba un número en " + clave + ": " + texto(clave));
+        }
+    }
+
+    private int[] lista(String clave) {
+        String[] partes = texto(clave).split(",");
+        int[] valores = new int[partes.length];
+        for (int i = 0; i < partes.length; i++) {
+            try {
+                valores[i] = Integer.parseInt(partes[i].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Se esperaba una lista de enteros en " + clave + ": " + texto(clave));
+            }
+        }
+        return valores;
+    }
+
+    // Lista de entre 1 y maxValores enteros, todos en [min, max]
+    private int[] lista(String clave, int min, int max, int maxValores) {
+        int[] valores = lista(clave);
+        if (valores.length > maxValores) {
+            throw new IllegalArgumentException("Se esperaba un solo valor en " + clave + ": " + texto(clave)
+                    + " (las listas son solo para motor=islas)");
+        }
+        for (int v : valores) {
+            if (v < min || v > max) {
+                throw new IllegalArgumentException(fueraDeRango(clave, "de " + min + " a " + max));
+            }
+        }
+        return valores;
+    }
+}
@@ -2,105 +2,277 @@ package com.mycompany.p2g06;
 
 import javax.swing.*;
 import java.awt.*;
-import java.util.Collections;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 import java.util.List;
 
+/**
+ * Gráfica de la evolución del fitness (mejor, media y mejor global por generación).
+ *
+ * Los valores se guardan en arrays de double y se agrupan por columna de píxeles
+ * (mínimo, máximo, primero y último de cada columna): se dibuja una línea vertical por
+ * columna más la unión con la columna anterior, así que el coste de dibujar no depende
+ * del número de generaciones. Las líneas se pintan en una imagen que se conserva entre
+ * repintados; añadir una generación solo dibuja su columna. La imagen se rehace entera
+ * solo si cambia la escala: al salir un valor del rango del eje Y, al llenarse el eje X
+ * (que entonces duplica su capacidad) o al cambiar el tamaño del panel.
+ */
 public class FitnessChartPanel extends JPanel {
-    private List<Double> bestFitness;
-    private List<Double> avgFitness;
-    private List<Double> absBestFitness;
-    
+    // Márgenes para el gráfico
+    private static final int MARGIN_LEFT = 60, MARGIN_RIGHT = 20, MARGIN_TOP = 20, MARGIN_BOTTOM = 60;
+    private static final int CAPACIDAD_INICIAL = 64;
+
+    private final Serie bestFitness = new Serie(Color.BLUE);      // Mejor fitness por generación
+    private final Serie avgFitness = new Serie(Color.GREEN);      // Fitness promedio
+    private final Serie absBestFitness = new Serie(Color.RED);    // Mejor fitness global
+    private final Serie[] series = {bestFitness, avgFitness, absBestFitness};
+
+    private int generations;
+    private int capacidad;          // Generaciones que caben en el eje X
+    private double minValue = Double.POSITIVE_INFINITY;
+    private double maxValue = Double.NEGATIVE_INFINITY;
+    private double ejeMin, ejeMax;  // Rango del eje Y (con margen)
+
+    private BufferedImage imagen;   // Líneas ya dibujadas, del tamaño del área de dibujo
+    private Graphics2D lienzo;
+    private boolean reagrupar;      // Hay que recalcular las columnas desde los valores
+    private boolean redibujar;      // Hay que repintar la imagen desde las columnas
+
     public FitnessChartPanel(List<Double> bestFitness, List<Double> avgFitness, List<Double> absBestFitness) {
-        this.bestFitness = bestFitness;
-        this.avgFitness = avgFitness;
-        this.absBestFitness = absBestFitness;
+        this(bestFitness.size());
+        for (int i = 0; i < bestFitness.size(); i++) {
+            agregarGeneracion(bestFitness.get(i), avgFitness.get(i), absBestFitness.get(i));
+        }
+    }
+
+    // Gráfica vacía que se va completando durante la ejecución con agregarGeneracion
+    public FitnessChartPanel() {
+        this(0);
+    }
+
+    // Gráfica vacía con el eje X ajustado de antemano a generacionesEsperadas
+    public FitnessChartPanel(int generacionesEsperadas) {
+        capacidad = Math.max(CAPACIDAD_INICIAL, generacionesEsperadas);
+    }
+
+    // Añade los valores de una generación (desde el hilo de Swing); el repintado lo decide quien llama
+    public void agregarGeneracion(double best, double avg, double absBest) {
+        int gen = generations++;
+        bestFitness.agregar(best);
+        avgFitness.agregar(avg);
+        absBestFitness.agregar(absBest);
+        boolean fueraDeRango = false;
+        for (Serie s : series) {
+            double v = s.valores[gen];
+            if (Double.isFinite(v)) {
+                minValue = Math.min(minValue, v);
+                maxValue = Math.max(maxValue, v);
+                fueraDeRango |= v < ejeMin || v > ejeMax;
+            }
+        }
+        if (fueraDeRango) {
+            ajustarEjeY();
+            redibujar = true;
+        }
+        if (generations > capacidad) {
+            capacidad *= 2;
+            reagrupar = true;
+        }
+        if (imagen != null && !reagrupar) {
+            // La escala no cambia: basta con añadir el punto a su columna
+            int col = columna(gen);
+            for (Serie s : series) {
+                s.agregarAColumna(col, s.valores[gen], redibujar ? null : lienzo, this);
+            }
+        }
+    }
+
+    public int getGeneraciones() {
+        return generations;
+    }
+
+    // Rango del eje Y con un 10 % de margen por arriba y por abajo
+    private void ajustarEjeY() {
+        double marginValue = (maxValue - minValue) * 0.1;
+        if (marginValue == 0) {
+            marginValue = Math.max(1, Math.abs(maxValue) * 0.1);
+        }
+        ejeMin = minValue - marginValue;
+        ejeMax = maxValue + marginValue;
+    }
+
+    private int columna(int gen) {
+        return (int) ((long) gen * imagen.getWidth() / capacidad);
+    }
+
+    private int y(double value) {
+        int plotHeight = imagen.getHeight();
+        return (int) (plotHeight - ((value - ejeMin) / (ejeMax - ejeMin) * plotHeight));
     }
-    
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
         Graphics2D g2d = (Graphics2D) g;
         int width = getWidth();
         int height = getHeight();
-        
-        // Márgenes para el gráfico
-        int marginLeft = 60, marginRight = 20, marginTop = 20, marginBottom = 60;
-        int plotWidth = width - marginLeft - marginRight;
-        int plotHeight = height - marginTop - marginBottom;
-        
-        int generations = bestFitness.size();
-        
-        // Determinar el rango de valores para escalar
-        double maxValue = Math.max(Collections.max(bestFitness), Math.max(Collections.max(avgFitness), Collections.max(absBestFitness)));
-        double minValue = Math.min(Collections.min(bestFitness), Math.min(Collections.min(avgFitness), Collections.min(absBestFitness)));
-        double marginValue = (maxValue - minValue) * 0.1;
-        maxValue += marginValue;
-        minValue -= marginValue;
-        
-        double xStep = (double) plotWidth / (generations - 1);
-        
+        int plotWidth = width - MARGIN_LEFT - MARGIN_RIGHT;
+        int plotHeight = height - MARGIN_TOP - MARGIN_BOTTOM;
+        if (plotWidth <= 0 || plotHeight <= 0) {
+            return;
+        }
+
+        // Imagen con las líneas: se crea al cambiar el tamaño y se rehace solo si cambió la escala
+        if (imagen == null || imagen.getWidth() != plotWidth || imagen.getHeight() != plotHeight) {
+            if (lienzo != null) {
+                lienzo.dispose();
+            }
+            imagen = new BufferedImage(plotWidth, plotHeight, BufferedImage.TYPE_INT_ARGB);
+            lienzo = imagen.createGraphics();
+            reagrupar = true;
+        }
+        if (reagrupar) {
+            for (Serie s : series) {
+                s.reagrupar(generations, plotWidth, this);
+            }
+            reagrupar = false;
+            redibujar = true;
+        }
+        if (redibujar) {
+            lienzo.setComposite(AlphaComposite.Clear);
+            lienzo.fillRect(0, 0, plotWidth, plotHeight);
+            lienzo.setComposite(AlphaComposite.SrcOver);
+            for (Serie s : series) {
+                s.dibujar(lienzo, this);
+            }
+            redibujar = false;
+        }
+        g2d.drawImage(imagen, MARGIN_LEFT, MARGIN_TOP, null);
+
         // Dibujar ejes
         g2d.setColor(Color.BLACK);
         // Eje X
-        g2d.drawLine(marginLeft, height - marginBottom, width - marginRight, height - marginBottom);
+        g2d.drawLine(MARGIN_LEFT, height - MARGIN_BOTTOM, width - MARGIN_RIGHT, height - MARGIN_BOTTOM);
         // Eje Y
-        g2d.drawLine(marginLeft, marginTop, marginLeft, height - marginBottom);
-        
+        g2d.drawLine(MARGIN_LEFT, MARGIN_TOP, MARGIN_LEFT, height - MARGIN_BOTTOM);
+
         // Etiquetas de los ejes
         // Eje X: "Generaciones" centrado debajo del eje
         String xLabel = "Generaciones";
         FontMetrics fm = g2d.getFontMetrics();
         int xLabelWidth = fm.stringWidth(xLabel);
-        g2d.drawString(xLabel, marginLeft + (plotWidth - xLabelWidth) / 2, height - marginBottom + 40);
-        
+        g2d.drawString(xLabel, MARGIN_LEFT + (plotWidth - xLabelWidth) / 2, height - MARGIN_BOTTOM + 40);
+        // Límites del eje X: la capacidad puede ser mayor que el número de generaciones
+        g2d.drawString("0", MARGIN_LEFT, height - MARGIN_BOTTOM + 15);
+        String xMax = String.valueOf(capacidad);
+        g2d.drawString(xMax, width - MARGIN_RIGHT - fm.stringWidth(xMax), height - MARGIN_BOTTOM + 15);
+
         // Eje Y: "Fitness" en vertical
         String yLabel = "Fitness";
         // Rotamos 90 grados para dibujar verticalmente
         Graphics2D g2dRot = (Graphics2D) g2d.create();
         g2dRot.rotate(-Math.PI / 2);
         int yLabelWidth = fm.stringWidth(yLabel);
-        g2dRot.drawString(yLabel, -marginTop - (plotHeight + yLabelWidth) / 2, marginLeft - 40);
+        g2dRot.drawString(yLabel, -MARGIN_TOP - (plotHeight + yLabelWidth) / 2, MARGIN_LEFT - 40);
         g2dRot.dispose();
-        
-        // Dibujar las tres líneas de evolución usando el área de dibujo (plot)
-        // Línea azul: Mejor Fitness por generación
-        g2d.setColor(Color.BLUE);
-        for (int i = 0; i < generations - 1; i++) {
-            int x1 = marginLeft + (int) (i * xStep);
-            int x2 = marginLeft + (int) ((i + 1) * xStep);
-            int y1 = marginTop + (int) (plotHeight - ((bestFitness.get(i) - minValue) / (maxValue - minValue) * plotHeight));
-            int y2 = marginTop + (int) (plotHeight - ((bestFitness.get(i + 1) - minValue) / (maxValue - minValue) * plotHeight));
-            g2d.drawLine(x1, y1, x2, y2);
-        }
-        
-        // Línea verde: Fitness Promedio
-        g2d.setColor(Color.GREEN);
-        for (int i = 0; i < generations - 1; i++) {
-            int x1 = marginLeft + (int) (i * xStep);
-            int x2 = marginLeft + (int) ((i + 1) * xStep);
-            int y1 = marginTop + (int) (plotHeight - ((avgFitness.get(i) - minValue) / (maxValue - minValue) * plotHeight));
-            int y2 = marginTop + (int) (plotHeight - ((avgFitness.get(i + 1) - minValue) / (maxValue - minValue) * plotHeight));
-            g2d.drawLine(x1, y1, x2, y2);
-        }
-        
-        // Línea roja: Mejor Fitness Global
-        g2d.setColor(Color.RED);
-        for (int i = 0; i < generations - 1; i++) {
-            int x1 = marginLeft + (int) (i * xStep);
-            int x2 = marginLeft + (int) ((i + 1) * xStep);
-            int y1 = marginTop + (int) (plotHeight - ((absBestFitness.get(i) - minValue) / (maxValue - minValue) * plotHeight));
-            int y2 = marginTop + (int) (plotHeight - ((absBestFitness.get(i + 1) - minValue) / (maxValue - minValue) * plotHeight));
-            g2d.drawLine(x1, y1, x2, y2);
-        }
-        
-        // Opcional: dibujar tick marks y valores en el eje Y
-        g2d.setColor(Color.BLACK);
+
+        if (minValue > maxValue) {
+            return; // Aún no hay valores
+        }
+        // Tick marks y valores en el eje Y
         int numTicks = 5;
         for (int i = 0; i <= numTicks; i++) {
-            int y = marginTop + (int) (i * (double) plotHeight / numTicks);
-            int value = (int) (maxValue - i * (maxValue - minValue) / numTicks);
-            g2d.drawLine(marginLeft - 5, y, marginLeft, y);
+            int y = MARGIN_TOP + (int) (i * (double) plotHeight / numTicks);
+            int value = (int) (ejeMax - i * (ejeMax - ejeMin) / numTicks);
+            g2d.drawLine(MARGIN_LEFT - 5, y, MARGIN_LEFT, y);
             g2d.drawString(String.valueOf(value), 5, y + 5);
         }
     }
+
+    /**
+     * Una línea de la gráfica: todos sus valores y, por cada columna de píxeles,
+     * el mínimo, el máximo, el primero y el último de las generaciones que caen en ella.
+     * Los valores no finitos (rutas imposibles) se guardan pero no se dibujan.
+     */
+    private static final class Serie {
+        private final Color color;
+        private double[] valores = new double[CAPACIDAD_INICIAL];
+        private int n;
+        private double[] minCol = new double[0], maxCol = new double[0];
+        private double[] primeroCol = new double[0], ultimoCol = new double[0];
+        private boolean[] usada = new boolean[0];
+        private int ultimaCol = -1; // Última columna con algún valor
+
+        Serie(Color color) {
+            this.color = color;
+        }
+
+        void agregar(double v) {
+            if (n == valores.length) {
+                valores = Arrays.copyOf(valores, 2 * n);
+            }
+            valores[n++] = v;
+        }
+
+        // Añade v a la columna; si hay lienzo, dibuja solo el trazo nuevo
+        void agregarAColumna(int col, double v, Graphics2D lienzo, FitnessChartPanel panel) {
+            if (!Double.isFinite(v)) {
+                return;
+            }
+            if (!usada[col]) {
+                usada[col] = true;
+                minCol[col] = maxCol[col] = primeroCol[col] = ultimoCol[col] = v;
+                if (lienzo != null) {
+                    lienzo.setColor(color);
+                    if (ultimaCol >= 0) {
+                        lienzo.drawLine(ultimaCol, panel.y(ultimoCol[ultimaCol]), col, panel.y(v));
+                    } else {
+                        lienzo.drawLine(col, panel.y(v), col, panel.y(v));
+                    }
+                }
+                ultimaCol = col;
+                return;
+            }
+            if (lienzo != null) {
+                lienzo.setColor(color);
+                lienzo.drawLine(col, panel.y(ultimoCol[col]), col, panel.y(v));
+            }
+            minCol[col] = Math.min(minCol[col], v);
+            maxCol[col] = Math.max(maxCol[col], v);
+            ultimoCol[col] = v;
+        }
+
+        // Recalcula todas las columnas para el ancho y la capacidad actuales
+        void reagrupar(int generaciones, int ancho, FitnessChartPanel panel) {
+            if (usada.length != ancho) {
+                minCol = new double[ancho];
+                maxCol = new double[ancho];
+                primeroCol = new double[ancho];
+                ultimoCol = new double[ancho];
+                usada = new boolean[ancho];
+            } else {
+                Arrays.fill(usada, false);
+            }
+            ultimaCol = -1;
+            for (int i = 0; i < generaciones; i++) {
+                agregarAColumna(panel.columna(i), valores[i], null, panel);
+            }
+        }
+
+        // Dibuja todas las columnas: unión con la anterior y línea vertical del mínimo al máximo
+        void dibujar(Graphics2D lienzo, FitnessChartPanel panel) {
+            lienzo.setColor(color);
+            int anterior = -1;
+            for (int col = 0; col < usada.length; col++) {
+                if (!usada[col]) {
+                    continue;
+                }
+                if (anterior >= 0) {
+                    lienzo.drawLine(anterior, panel.y(ultimoCol[anterior]), col, panel.y(primeroCol[col]));
+                }
+                lienzo.drawLine(col, panel.y(minCol[col]), col, panel.y(maxCol[col]));
+                anterior = col;
+            }
+        }
+    }
 }
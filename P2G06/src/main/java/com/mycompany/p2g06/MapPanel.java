@@ -2,6 +2,7 @@ package com.mycompany.p2g06;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.util.List;
 import java.util.ArrayList;
 import java.awt.geom.Path2D;
@@ -9,12 +10,21 @@ import Model.CasaMap;
 import Model.Room;
 import java.awt.Point;
 
+/**
+ * Mapa con la ruta del robot. La cuadrícula y los números de las habitaciones se dibujan
+ * una sola vez en una imagen de fondo; las estrellas de la ruta se dibujan en una segunda
+ * capa transparente según se añaden, de modo que añadir un punto solo pinta una estrella
+ * y repinta su celda.
+ */
 public class MapPanel extends JPanel {
+    // Lado máximo en píxeles del mapa dibujado: en mapas grandes las celdas se encogen
+    private static final int TAM_MAXIMO = 2048;
+
     private CasaMap map;
     private List<Point> route;  // Cada Point: (row, col)
-     
+
    private int cellSize = 40;
-    
+
     // Colores para cada tipo de celda
     private static final Color COLOR_OBSTACLE = new Color(64, 64, 64);
     private static final Color COLOR_FREE = Color.WHITE;
@@ -22,36 +32,83 @@ public class MapPanel extends JPanel {
     private static final Color COLOR_ROOM = new Color(255, 255, 0);
     private static final Color COLOR_GRID = Color.BLACK;
     private static final Color COLOR_ROUTE = Color.BLUE;
-    
+
+    private final Shape star;          // Estrella centrada en (0, 0), la misma para todos los puntos
+    private BufferedImage fondo;       // Cuadrícula y números de las habitaciones
+    private BufferedImage capaRuta;    // Estrellas de la ruta (fondo transparente)
+    private Graphics2D lienzoRuta;
+
     public MapPanel(CasaMap map) {
         this.map = map;
         this.route = new ArrayList<>();
-        
+        cellSize = Math.max(2, Math.min(cellSize, TAM_MAXIMO / Math.max(map.getRows(), map.getCols())));
+        star = createStar(cellSize / 2.5);
+
         // Ajusta el tamaño preferido
         setPreferredSize(new Dimension(
-                CasaMap.COLS * cellSize, 
-                CasaMap.ROWS * cellSize));
+                map.getCols() * cellSize,
+                map.getRows() * cellSize));
     }
-    
+
     // Asignamos una nueva ruta y forzamos repintado
     public void setRoute(List<Point> route) {
-        this.route = route;
+        this.route = new ArrayList<>(route);
+        if (capaRuta != null) {
+            lienzoRuta.setComposite(AlphaComposite.Clear);
+            lienzoRuta.fillRect(0, 0, capaRuta.getWidth(), capaRuta.getHeight());
+            lienzoRuta.setComposite(AlphaComposite.SrcOver);
+            for (Point p : this.route) {
+                drawStar(p);
+            }
+        }
         repaint();
     }
-    
+
+    // Añade un punto al final de la ruta sin copiarla y repinta solo su celda
+    public void addRoutePoint(Point p) {
+        route.add(p);
+        if (capaRuta != null) {
+            drawStar(p);
+        }
+        repaint(p.y * cellSize, p.x * cellSize, cellSize + 1, cellSize + 1);
+    }
+
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-        
+        if (fondo == null) {
+            fondo = drawBackground();
+        }
+        if (capaRuta == null) {
+            capaRuta = new BufferedImage(fondo.getWidth(), fondo.getHeight(), BufferedImage.TYPE_INT_ARGB);
+            lienzoRuta = capaRuta.createGraphics();
+            for (Point p : route) {
+                drawStar(p);
+            }
+        }
+        // drawImage respeta el recorte: al repintar una celda solo se copia esa zona
+        g.drawImage(fondo, 0, 0, null);
+        g.drawImage(capaRuta, 0, 0, null);
+    }
+
+    // Dibuja la cuadrícula y los números de las habitaciones (una sola vez por panel)
+    private BufferedImage drawBackground() {
+        BufferedImage imagen = new BufferedImage(map.getCols() * cellSize + 1, map.getRows() * cellSize + 1,
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = imagen.createGraphics();
+        g2d.setColor(getBackground());
+        g2d.fillRect(0, 0, imagen.getWidth(), imagen.getHeight());
+        g2d.setFont(getFont());
+
         // Dibujamos la cuadrícula
-        for (int row = 0; row < CasaMap.ROWS; row++) {
-            for (int col = 0; col < CasaMap.COLS; col++) {
+        char[][] grid = map.getGrid();
+        for (int row = 0; row < map.getRows(); row++) {
+            for (int col = 0; col < map.getCols(); col++) {
                 int x = col * cellSize;
                 int y = row * cellSize;
-                
-                char cell = map.getGrid()[row][col];
-                
+
+                char cell = grid[row][col];
+
                 // Determinamos color de fondo
                 if (cell == '■') {
                     g2d.setColor(COLOR_OBSTACLE); // Obstáculo
@@ -62,16 +119,16 @@ public class MapPanel extends JPanel {
                 } else {
                     g2d.setColor(COLOR_FREE); // Libre
                 }
-                
+
                 // Pintamos la celda
                 g2d.fillRect(x, y, cellSize, cellSize);
-                
+
                 // Borde de la celda
                 g2d.setColor(COLOR_GRID);
                 g2d.drawRect(x, y, cellSize, cellSize);
             }
         }
-        
+
         // Dibujar el número completo de cada habitación sobre la celda
         for (Room room : map.getRooms()) {
             int x = room.getCol() * cellSize;
@@ -79,32 +136,33 @@ public class MapPanel extends JPanel {
             g2d.setColor(Color.BLACK);
             g2d.drawString(String.valueOf(room.getId()), x + cellSize/4, y + (3 * cellSize)/4);
         }
-        
-        // Dibujamos la ruta en azul con estrellas
-        if (route != null && !route.isEmpty()) {
-            g2d.setColor(COLOR_ROUTE);
-            for (Point p : route) {
-                int x = p.y * cellSize;
-                int y = p.x * cellSize;
-                // Dibujamos una estrella centrada en la celda
-                drawStar(g2d, x + cellSize/2.0, y + cellSize/2.0, cellSize/2.5);
-            }
-        }
+        g2d.dispose();
+        return imagen;
     }
-    
+
+    // Dibuja en la capa de la ruta una estrella azul centrada en la celda del punto
+    private void drawStar(Point p) {
+        double cx = p.y * cellSize + cellSize / 2.0;
+        double cy = p.x * cellSize + cellSize / 2.0;
+        lienzoRuta.setColor(COLOR_ROUTE);
+        lienzoRuta.translate(cx, cy);
+        lienzoRuta.fill(star);
+        lienzoRuta.translate(-cx, -cy);
+    }
+
     /**
-     * Dibuja una estrella centrada en (cx, cy) con un "radio" r.
+     * Crea una estrella centrada en (0, 0) con un "radio" r.
      */
-    private void drawStar(Graphics2D g2d, double cx, double cy, double r) {
+    private static Shape createStar(double r) {
         int numRays = 5;         // 5 puntas
-        double angle = Math.PI / numRays;  
-        
+        double angle = Math.PI / numRays;
+
         Path2D star = new Path2D.Double();
         for (int i = 0; i < 2 * numRays; i++) {
             double rad = (i % 2 == 0) ? r : r / 2.5;
             double currAngle = i * angle;
-            double px = cx + Math.cos(currAngle) * rad;
-            double py = cy + Math.sin(currAngle) * rad;
+            double px = Math.cos(currAngle) * rad;
+            double py = Math.sin(currAngle) * rad;
             if (i == 0) {
                 star.moveTo(px, py);
             } else {
@@ -112,7 +170,6 @@ public class MapPanel extends JPanel {
             }
         }
         star.closePath();
-        
-        g2d.fill(star);
+        return star;
     }
 }
@@ -4,17 +4,26 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.Point;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 import Model.CasaMap;
-import Model.Room;
-import Algoritmo.AStar;
+import Algoritmo.DistanceMatrix;
 import Algoritmo.AlgorimoGeneticoRuta;
 import Algoritmo.IndividuoRuta;
+import Algoritmo.ProgresoGeneracion;
 
 public class P2G06 {
 
     private MapPanel mapPanelEmpty;
     private MapPanel mapPanelRuta;
+    private EjecucionAlgoritmo ejecucion; // Ejecución en curso (o la última)
+    private Timer animacion;              // Animación de la ruta final
+    
+    // Intervalos mínimos entre repintados durante la ejecución
+    private static final long INTERVALO_GRAFICA_MS = 100;
+    private static final long INTERVALO_MAPA_MS = 250;
     
     public static void main(String[] args) {
         SwingUtilities.invokeLater(() -> new P2G06().crearInterfaz());
@@ -75,7 +84,13 @@ public class P2G06 {
         panelConfig.add(comboMutacion);
         
         JButton btnEjecutar = new JButton("Ejecutar Algoritmo");
+        JButton btnCancelar = new JButton("Cancelar");
+        btnCancelar.setEnabled(false);
+        JProgressBar barraProgreso = new JProgressBar();
+        barraProgreso.setStringPainted(true);
         panelConfig.add(btnEjecutar);
+        panelConfig.add(btnCancelar);
+        panelConfig.add(barraProgreso);
         
         frame.add(panelConfig, BorderLayout.NORTH);
         
@@ -89,25 +104,8 @@ public class P2G06 {
             int crossoverMethod = comboCruce.getSelectedIndex();
             int mutationMethod = comboMutacion.getSelectedIndex();
             
-            AlgorimoGeneticoRuta ag = new AlgorimoGeneticoRuta(tamPob, gens, pMutacion, pCruce, map, fitnessType, selectionMethod, crossoverMethod, mutationMethod);
-            ag.evolucionar();
-            IndividuoRuta mejor = ag.getMejor();
-            
-            StringBuilder info = new StringBuilder();
-            info.append("Mejor ruta encontrada:\n\n");
-            info.append("Secuencia de habitaciones: ");
-            for (int id : mejor.getRuta()) {
-                info.append(id).append(" ");
-            }
-            info.append("\nFitness: ").append(mejor.getFitness());
-            JOptionPane.showMessageDialog(frame, info.toString(), "Resultados", JOptionPane.INFORMATION_MESSAGE);
-            
-            // Mostrar la gráfica de evolución del fitness
-            FitnessChartPanel chartPanel = new FitnessChartPanel(
-                ag.getBestFitnessPerGeneration(),
-                ag.getAverageFitnessPerGeneration(),
-                ag.getAbsoluteBestFitness()
-            );
+            // La gráfica de evolución del fitness se abre al empezar y se completa en directo
+            FitnessChartPanel chartPanel = new FitnessChartPanel(gens);
             JFrame chartFrame = new JFrame("Evolución del Fitness");
             chartFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
             chartFrame.add(chartPanel);
@@ -115,49 +113,70 @@ public class P2G06 {
             chartFrame.setLocationRelativeTo(null);
             chartFrame.setVisible(true);
             
-            // Calcular y animar la ruta
-            List<Point> fullPath = new ArrayList<>();
-            AStar astar = new AStar(map.getGrid());
-            
-            Room firstRoom = map.getRooms().get(mejor.getRuta()[0] - 1);
-            List<Point> segment = astar.calcularRuta(map.getBaseRow(), map.getBaseCol(), firstRoom.getRow(), firstRoom.getCol());
-            if(segment != null) fullPath.addAll(segment);
-            
-            for (int i = 0; i < mejor.getRuta().length - 1; i++) {
-                Room r1 = map.getRooms().get(mejor.getRuta()[i] - 1);
-                Room r2 = map.getRooms().get(mejor.getRuta()[i+1] - 1);
-                segment = astar.calcularRuta(r1.getRow(), r1.getCol(), r2.getRow(), r2.getCol());
-                if (segment != null && !segment.isEmpty()) {
-                    if (!fullPath.isEmpty() && fullPath.get(fullPath.size()-1).equals(segment.get(0))) {
-                        segment.remove(0);
-                    }
-                    fullPath.addAll(segment);
-                }
+            if (animacion != null) {
+                animacion.stop();
             }
-            
-            Room lastRoom = map.getRooms().get(mejor.getRuta()[mejor.getRuta().length - 1] - 1);
-            segment = astar.calcularRuta(lastRoom.getRow(), lastRoom.getCol(), map.getBaseRow(), map.getBaseCol());
-            if(segment != null && !segment.isEmpty()){
+            btnEjecutar.setEnabled(false);
+            btnCancelar.setEnabled(true);
+            barraProgreso.setMaximum(Math.max(1, gens));
+            barraProgreso.setValue(0);
+            barraProgreso.setString("Creando la población inicial...");
+            // El algoritmo se crea en el hilo del SwingWorker: crear y evaluar la población puede tardar
+            Supplier<AlgorimoGeneticoRuta> crearAlgoritmo = () -> new AlgorimoGeneticoRuta(tamPob, gens, pMutacion, pCruce,
+                    map, fitnessType, selectionMethod, crossoverMethod, mutationMethod);
+            ejecucion = new EjecucionAlgoritmo(crearAlgoritmo, map, chartPanel, barraProgreso, () -> {
+                btnEjecutar.setEnabled(true);
+                btnCancelar.setEnabled(false);
+            }, frame);
+            ejecucion.execute();
+        });
+        
+        btnCancelar.addActionListener(e -> {
+            if (ejecucion != null) {
+                ejecucion.cancelar();
+                btnCancelar.setEnabled(false);
+            }
+        });
+        
+        frame.setVisible(true);
+    }
+    
+    // Camino completo base -> habitaciones -> base sobre la cuadrícula
+    private static List<Point> construirRuta(DistanceMatrix distancias, int[] ruta) {
+        List<Point> fullPath = new ArrayList<>();
+        
+        List<Point> segment = distancias.ruta(0, ruta[0]);
+        if(segment != null) fullPath.addAll(segment);
+        
+        for (int i = 0; i < ruta.length - 1; i++) {
+            segment = distancias.ruta(ruta[i], ruta[i + 1]);
+            if (segment != null && !segment.isEmpty()) {
                 if (!fullPath.isEmpty() && fullPath.get(fullPath.size()-1).equals(segment.get(0))) {
-                    segment.remove(0);
+                    segment = segment.subList(1, segment.size());
                 }
                 fullPath.addAll(segment);
             }
-            
-            animateRoute(fullPath, 100);
-        });
+        }
         
-        frame.setVisible(true);
+        segment = distancias.ruta(ruta[ruta.length - 1], 0);
+        if(segment != null && !segment.isEmpty()){
+            if (!fullPath.isEmpty() && fullPath.get(fullPath.size()-1).equals(segment.get(0))) {
+                segment = segment.subList(1, segment.size());
+            }
+            fullPath.addAll(segment);
+        }
+        return fullPath;
     }
     
+    // Cada tic añade un punto al panel (sin copiar la ruta) y solo se repinta su celda
     private void animateRoute(List<Point> fullPath, int delay) {
-        List<Point> animatedRoute = new ArrayList<>();
+        mapPanelRuta.setRoute(new ArrayList<>());
         Timer timer = new Timer(delay, null);
+        animacion = timer;
         final int[] index = {0};
         timer.addActionListener(e -> {
             if (index[0] < fullPath.size()) {
-                animatedRoute.add(fullPath.get(index[0]));
-                mapPanelRuta.setRoute(new ArrayList<>(animatedRoute));
+                mapPanelRuta.addRoutePoint(fullPath.get(index[0]));
                 index[0]++;
             } else {
                 ((Timer)e.getSource()).stop();
@@ -165,4 +184,110 @@ public class P2G06 {
         });
         timer.start();
     }
+
+    /**
+     * Crea y ejecuta el algoritmo fuera del hilo de Swing. Cada generación se publica como una
+     * instantánea; process() las recibe agrupadas en el hilo de Swing, añade todas a la
+     * gráfica y repinta la gráfica y el mapa como mucho cada INTERVALO_*_MS.
+     */
+    private class EjecucionAlgoritmo extends SwingWorker<IndividuoRuta, ProgresoGeneracion> {
+        private final Supplier<AlgorimoGeneticoRuta> crearAlgoritmo;
+        private volatile AlgorimoGeneticoRuta ag; // null hasta que doInBackground lo crea
+        private volatile boolean cancelado;
+        private final CasaMap map;
+        private final FitnessChartPanel chartPanel;
+        private final JProgressBar barraProgreso;
+        private final Runnable alTerminar;
+        private final JFrame frame;
+        private long ultimaGrafica;
+        private long ultimoMapa;
+        private int[] rutaDibujada;
+        
+        EjecucionAlgoritmo(Supplier<AlgorimoGeneticoRuta> crearAlgoritmo, CasaMap map, FitnessChartPanel chartPanel,
+                JProgressBar barraProgreso, Runnable alTerminar, JFrame frame) {
+            this.crearAlgoritmo = crearAlgoritmo;
+            this.map = map;
+            this.chartPanel = chartPanel;
+            this.barraProgreso = barraProgreso;
+            this.alTerminar = alTerminar;
+            this.frame = frame;
+        }
+        
+        // Termina al acabar la generación en curso y muestra el mejor resultado hasta entonces
+        // (si aún se está creando la población, el algoritmo se cancela nada más crearse)
+        void cancelar() {
+            cancelado = true;
+            AlgorimoGeneticoRuta actual = ag;
+            if (actual != null) {
+                actual.cancelar();
+            }
+        }
+        
+        @Override
+        protected IndividuoRuta doInBackground() {
+            AlgorimoGeneticoRuta ag = crearAlgoritmo.get();
+            ag.setMostrarProgreso(false); // El progreso se ve en la ventana
+            this.ag = ag;
+            if (cancelado) {
+                ag.cancelar();
+            }
+            ag.setProgresoListener(progreso -> publish(progreso));
+            ag.evolucionar();
+            return ag.getMejor();
+        }
+        
+        @Override
+        protected void process(List<ProgresoGeneracion> progresos) {
+            for (ProgresoGeneracion p : progresos) {
+                chartPanel.agregarGeneracion(p.getMejor(), p.getMedia(), p.getMejorAbsoluto());
+            }
+            ProgresoGeneracion ultimo = progresos.get(progresos.size() - 1);
+            barraProgreso.setValue(ultimo.getGeneracion() + 1);
+            barraProgreso.setString("Generación " + (ultimo.getGeneracion() + 1) + " / " + ultimo.getGeneraciones()
+                    + " - Mejor: " + ultimo.getMejorAbsoluto());
+            
+            long ahora = System.currentTimeMillis();
+            if (ahora - ultimaGrafica >= INTERVALO_GRAFICA_MS) {
+                chartPanel.repaint();
+                ultimaGrafica = ahora;
+            }
+            int[] ruta = ultimo.getRutaMejor();
+            if (ahora - ultimoMapa >= INTERVALO_MAPA_MS && !Arrays.equals(ruta, rutaDibujada)) {
+                mapPanelRuta.setRoute(construirRuta(map.getDistanceMatrix(), ruta));
+                rutaDibujada = ruta;
+                ultimoMapa = ahora;
+            }
+        }
+        
+        @Override
+        protected void done() {
+            alTerminar.run();
+            chartPanel.repaint();
+            IndividuoRuta mejor;
+            try {
+                mejor = get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                JOptionPane.showMessageDialog(frame, "Error durante la ejecución: " + e.getCause(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            
+            StringBuilder info = new StringBuilder();
+            info.append(ag.isCancelado() ? "Ejecución cancelada. Mejor ruta hasta el momento:\n\n" : "Mejor ruta encontrada:\n\n");
+            info.append("Secuencia de habitaciones: ");
+            for (int id : mejor.getRuta()) {
+                info.append(id).append(" ");
+            }
+            info.append("\nFitness: ").append(mejor.getFitness());
+            info.append("\nParada: ").append(ag.getMotivoParada())
+                .append(" tras ").append(ag.getGeneracionesEjecutadas()).append(" generaciones");
+            JOptionPane.showMessageDialog(frame, info.toString(), "Resultados", JOptionPane.INFORMATION_MESSAGE);
+            
+            // Animar la ruta final
+            animateRoute(construirRuta(map.getDistanceMatrix(), mejor.getRuta()), 100);
+        }
+    }
 }